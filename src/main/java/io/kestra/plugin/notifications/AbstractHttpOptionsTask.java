@@ -2,24 +2,33 @@ package io.kestra.plugin.notifications;
 
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.http.HttpRequest;
-import io.kestra.core.http.client.configurations.HttpConfiguration;
-import io.kestra.core.http.client.configurations.TimeoutConfiguration;
+import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClientException;
+import io.kestra.core.http.client.HttpClientResponseException;
 import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.models.tasks.Task;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.notifications.services.HttpCircuitBreaker;
+import io.kestra.plugin.notifications.services.HttpClientPool;
+import io.kestra.plugin.notifications.services.HttpRateLimiter;
+import io.kestra.plugin.notifications.services.HttpRetryPolicy;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
+import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
+import java.util.Optional;
 
 @SuperBuilder
 @ToString
@@ -34,20 +43,178 @@ public abstract class AbstractHttpOptionsTask extends Task implements RunnableTa
     @PluginProperty(dynamic = true)
     protected RequestOptions options;
 
-    protected HttpConfiguration httpClientConfigurationWithOptions() throws IllegalVariableEvaluationException {
-        HttpConfiguration.HttpConfigurationBuilder configuration = HttpConfiguration.builder();
+    /**
+     * Send the request through the worker-wide {@link HttpClientPool}, reusing keep-alive connections across task runs.
+     * The request is rate limited by its URI, see {@link #request(RunContext, HttpRequest, Class, String)}.
+     */
+    protected <T> HttpResponse<T> request(RunContext runContext, HttpRequest request, Class<T> cls) throws HttpClientException, IllegalVariableEvaluationException {
+        return this.request(runContext, request, cls, request.getUri().toString());
+    }
+
+    /**
+     * Send the request through the worker-wide {@link HttpClientPool}, reusing keep-alive connections across task runs.
+     * Each attempt waits for the {@link HttpRateLimiter} of the destination and, when enabled, is guarded by the
+     * {@link HttpCircuitBreaker} of the endpoint, failed calls are retried according to the {@link HttpRetryPolicy} of
+     * the options, with the same request.
+     *
+     * @param destination identifies the rate limited destination, like a webhook URL or a bot and chat
+     */
+    protected <T> HttpResponse<T> request(RunContext runContext, HttpRequest request, Class<T> cls, String destination) throws HttpClientException, IllegalVariableEvaluationException {
+        HttpRetryPolicy retryPolicy = HttpRetryPolicy.of(runContext, this.options);
+        HttpRateLimiter.Rate rate = this.rateLimit(runContext);
+        Duration rateLimitMaxWait = this.rateLimitMaxWait(runContext);
+        HttpCircuitBreaker.Breaker breaker = this.circuitBreaker(runContext, request);
+
+        try (HttpClientPool.Lease lease = HttpClientPool.acquire(runContext, this.options)) {
+            for (int attempt = 1; ; attempt++) {
+                if (rate != null) {
+                    this.waitForRateLimit(runContext, destination, rate, rateLimitMaxWait);
+                }
+
+                HttpCircuitBreaker.Permit permit = breaker != null ? this.acquirePermit(runContext, breaker) : null;
+                HttpClientException failure;
+                Duration delay;
+
+                try {
+                    HttpResponse<T> response = lease.getClient().request(request, cls);
+                    if (breaker != null) {
+                        this.recordSuccess(runContext, breaker);
+                    }
+
+                    return response;
+                } catch (HttpClientException e) {
+                    if (breaker != null) {
+                        this.recordFailure(runContext, breaker, e);
+                    }
+
+                    failure = e;
+                    delay = retryPolicy.delay(attempt, e).orElseThrow(() -> e);
+                } finally {
+                    // give the probe back if the attempt ended without an outcome of the endpoint, like on a rendering
+                    // error on our side that must never open the breaker
+                    if (permit != null) {
+                        permit.close();
+                    }
+                }
+
+                runContext.logger().warn("Request to '{}' failed on attempt {}, retrying in {}: {}", request.getUri(), attempt, delay, failure.getMessage());
+
+                try {
+                    Thread.sleep(delay.toMillis());
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw failure;
+                }
+            }
+        }
+    }
+
+    private HttpCircuitBreaker.Permit acquirePermit(RunContext runContext, HttpCircuitBreaker.Breaker breaker) {
+        try {
+            HttpCircuitBreaker.Permit permit = breaker.acquire();
+
+            if (permit.isProbe()) {
+                runContext.logger().info("Circuit breaker half-open for '{}', sending a probe request", breaker.getEndpoint());
+                runContext.metric(Counter.of("circuit.breaker.half_opened", 1, "endpoint", breaker.getEndpoint()));
+            }
+
+            return permit;
+        } catch (HttpCircuitBreaker.OpenException e) {
+            runContext.metric(Counter.of("circuit.breaker.rejected", 1, "endpoint", breaker.getEndpoint()));
+            throw e;
+        }
+    }
 
+    /**
+     * The rate limit of the destination service, used when the options don't define one.
+     *
+     * @return null if the service has no known rate limit
+     */
+    protected HttpRateLimiter.Rate defaultRateLimit() {
+        return null;
+    }
+
+    private HttpRateLimiter.Rate rateLimit(RunContext runContext) throws IllegalVariableEvaluationException {
         if (this.options != null) {
+            Optional<Integer> permits = runContext.render(this.options.getRateLimit()).as(Integer.class);
 
-            configuration
-                .timeout(TimeoutConfiguration.builder()
-                    .connectTimeout(this.options.getConnectTimeout())
-                    .readIdleTimeout(this.options.getReadIdleTimeout())
-                .build())
-                .defaultCharset(this.options.getDefaultCharset());
+            if (permits.isPresent()) {
+                return new HttpRateLimiter.Rate(
+                    permits.get(),
+                    runContext.render(this.options.getRateLimitPeriod()).as(Duration.class).orElse(Duration.ofSeconds(1))
+                );
+            }
         }
 
-        return configuration.build();
+        return this.defaultRateLimit();
+    }
+
+    private Duration rateLimitMaxWait(RunContext runContext) throws IllegalVariableEvaluationException {
+        RequestOptions rOptions = this.options != null ? this.options : RequestOptions.builder().build();
+
+        return runContext.render(rOptions.getRateLimitMaxWait()).as(Duration.class).orElse(Duration.ofSeconds(10));
+    }
+
+    private HttpCircuitBreaker.Breaker circuitBreaker(RunContext runContext, HttpRequest request) throws IllegalVariableEvaluationException {
+        RequestOptions rOptions = this.options != null ? this.options : RequestOptions.builder().build();
+
+        int threshold = runContext.render(rOptions.getCircuitBreakerThreshold()).as(Integer.class).orElse(0);
+        if (threshold <= 0) {
+            return null;
+        }
+
+        return HttpCircuitBreaker.of(
+            request.getUri(),
+            threshold,
+            runContext.render(rOptions.getCircuitBreakerOpenDuration()).as(Duration.class).orElse(Duration.ofSeconds(30))
+        );
+    }
+
+    private void recordSuccess(RunContext runContext, HttpCircuitBreaker.Breaker breaker) {
+        if (breaker.onSuccess()) {
+            runContext.logger().info("Circuit breaker closed for '{}'", breaker.getEndpoint());
+            runContext.metric(Counter.of("circuit.breaker.closed", 1, "endpoint", breaker.getEndpoint()));
+        }
+    }
+
+    /**
+     * Only the failures of the endpoint count: I/O errors and {@code 5xx} or {@code 429} responses. Any other response
+     * means the endpoint is up, even if it rejected this request.
+     */
+    private void recordFailure(RunContext runContext, HttpCircuitBreaker.Breaker breaker, HttpClientException e) {
+        if (e instanceof HttpClientResponseException responseException && responseException.getResponse() != null) {
+            int status = responseException.getResponse().getStatus().getCode();
+
+            if (status < 500 && status != 429) {
+                this.recordSuccess(runContext, breaker);
+                return;
+            }
+        } else if (!(e.getCause() instanceof IOException)) {
+            // not an outcome of the endpoint, the permit gives the probe back
+            return;
+        }
+
+        if (breaker.onFailure()) {
+            runContext.logger().warn("Circuit breaker opened for '{}' after consecutive failures", breaker.getEndpoint());
+            runContext.metric(Counter.of("circuit.breaker.opened", 1, "endpoint", breaker.getEndpoint()));
+        }
+    }
+
+    private void waitForRateLimit(RunContext runContext, String destination, HttpRateLimiter.Rate rate, Duration maxWait) {
+        try {
+            Duration waited = HttpRateLimiter.acquire(destination, rate, maxWait);
+
+            if (!waited.isZero()) {
+                runContext.logger().debug("Waited {} for the rate limit of the destination", waited);
+                runContext.metric(Timer.of("rate.limit.wait", waited));
+            }
+        } catch (HttpRateLimiter.WaitTooLongException e) {
+            runContext.metric(Counter.of("rate.limit.rejected", 1));
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the rate limit of the destination", e);
+        }
     }
 
     protected HttpRequest.HttpRequestBuilder createRequestBuilder(
@@ -92,6 +259,61 @@ public abstract class AbstractHttpOptionsTask extends Task implements RunnableTa
         @Builder.Default
         private final Property<Charset> defaultCharset = Property.ofValue(StandardCharsets.UTF_8);
 
+        @Schema(
+            title = "The maximum number of attempts of a request.",
+            description = "Only the requests that surely didn't reach the server are retried: connection errors and " +
+                "`429 Too Many Requests` responses. Read timeouts and `5xx` responses are never retried since the notification " +
+                "may already have been sent. Only the HTTP call is retried with the already built payload. Set it to 1 to disable retries."
+        )
+        @Builder.Default
+        private final Property<Integer> maxAttempts = Property.ofValue(3);
+
+        @Schema(title = "The delay before the first retry, doubled on each following attempt.")
+        @Builder.Default
+        private final Property<Duration> retryBackoff = Property.ofValue(Duration.ofSeconds(1));
+
+        @Schema(
+            title = "The maximum delay between two attempts.",
+            description = "The delay asked by the server through the `Retry-After` or `X-RateLimit-Reset` headers is honored, " +
+                "unless it is longer than this one in which case the request is not retried."
+        )
+        @Builder.Default
+        private final Property<Duration> maxRetryBackoff = Property.ofValue(Duration.ofSeconds(30));
+
+        @Schema(title = "The random factor applied to the retry backoff, between 0 and 1.")
+        @Builder.Default
+        private final Property<Double> retryJitter = Property.ofValue(0.2);
+
+        @Schema(
+            title = "The maximum number of requests sent to the same destination per rate limit period.",
+            description = "Requests above that rate wait on the worker before being sent. " +
+                "When not set, the known rate limit of the service is used, like one message per second for a Slack webhook."
+        )
+        private final Property<Integer> rateLimit;
+
+        @Schema(title = "The period of the rate limit, one second if not set.")
+        private final Property<Duration> rateLimitPeriod;
+
+        @Schema(
+            title = "The longest time a request waits for the rate limit of its destination.",
+            description = "A request that would wait longer fails right away instead of holding a worker thread, " +
+                "like during an alert storm on a single webhook."
+        )
+        @Builder.Default
+        private final Property<Duration> rateLimitMaxWait = Property.ofValue(Duration.ofSeconds(10));
+
+        @Schema(
+            title = "The number of consecutive failures of an endpoint opening its circuit breaker.",
+            description = "Connection and I/O errors, `5xx` and `429` responses count as failures. While the circuit breaker of an endpoint is open, " +
+                "the requests to that endpoint fail right away. An endpoint is the full URL of the request, so webhooks sharing " +
+                "a host don't open each other's circuit breaker. The circuit breaker is disabled when not set."
+        )
+        private final Property<Integer> circuitBreakerThreshold;
+
+        @Schema(title = "The time a circuit breaker stays open before letting a probe request through.")
+        @Builder.Default
+        private final Property<Duration> circuitBreakerOpenDuration = Property.ofValue(Duration.ofSeconds(30));
+
         @Schema(
             title = "HTTP headers",
             description = "HTTP headers to include in the request"
@@ -0,0 +1,232 @@
+package io.kestra.plugin.notifications;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.notifications.services.ExecutionService;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Send the execution information to several notification channels at once.",
+    description = """
+        The execution is looked up and the template variables are computed once, then every channel is sent concurrently with them.
+
+        Each channel is a notification `*Execution` task, like `io.kestra.plugin.notifications.slack.SlackExecution` or `io.kestra.plugin.notifications.mail.MailExecution`. The `executionId` of the channels is ignored in favor of the one of this task, their `customMessage` and `customFields` override the ones of this task.
+
+        Use this notification task only in a flow that has a [Flow trigger](https://kestra.io/docs/administrator-guide/monitoring#alerting)."""
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Send a Slack message and an email on a failed flow execution, only failing if both fail.",
+            full = true,
+            code = """
+                id: failure_alert
+                namespace: company.team
+
+                tasks:
+                  - id: send_alerts
+                    type: io.kestra.plugin.notifications.MultiChannelExecution
+                    executionId: "{{ trigger.executionId }}"
+                    failurePolicy: ALL_FAILED
+                    channels:
+                      - id: slack
+                        type: io.kestra.plugin.notifications.slack.SlackExecution
+                        url: "{{ secret('SLACK_WEBHOOK') }}"
+                      - id: mail
+                        type: io.kestra.plugin.notifications.mail.MailExecution
+                        host: mail.privateemail.com
+                        port: 465
+                        username: "{{ secret('EMAIL_USERNAME') }}"
+                        password: "{{ secret('EMAIL_PASSWORD') }}"
+                        from: hello@kestra.io
+                        to: hello@kestra.io
+
+                triggers:
+                  - id: failed_prod_workflows
+                    type: io.kestra.plugin.core.trigger.Flow
+                    conditions:
+                      - type: io.kestra.plugin.core.condition.ExecutionStatus
+                        in:
+                          - FAILED
+                          - WARNING
+                      - type: io.kestra.plugin.core.condition.ExecutionNamespace
+                        namespace: prod
+                        prefix: true
+                """
+        )
+    }
+)
+public class MultiChannelExecution extends Task implements RunnableTask<MultiChannelExecution.Output>, ExecutionInterface {
+    @Builder.Default
+    private final Property<String> executionId = Property.ofExpression("{{ execution.id }}");
+    private Property<Map<String, Object>> customFields;
+    private Property<String> customMessage;
+
+    @Schema(
+        title = "The notification tasks to send",
+        description = "Each channel must be a notification `*Execution` task."
+    )
+    @PluginProperty
+    @NotEmpty
+    private List<Task> channels;
+
+    @Schema(
+        title = "The maximum number of channels sent at the same time"
+    )
+    @NotNull
+    @Builder.Default
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "When to fail the task",
+        description = "Every channel is sent before the policy is applied: `ANY_FAILED` fails if at least one channel failed, `ALL_FAILED` only if every channel failed and `NEVER` only reports the failures in the output."
+    )
+    @NotNull
+    @Builder.Default
+    private Property<FailurePolicy> failurePolicy = Property.ofValue(FailurePolicy.ANY_FAILED);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        for (Task channel : this.channels) {
+            if (!(channel instanceof RunnableTask<?>) || !(channel instanceof ExecutionInterface)) {
+                throw new IllegalArgumentException("Channel '" + channel.getId() + "' must be a notification *Execution task, got '" + channel.getType() + "'");
+            }
+        }
+
+        Map<String, Object> variables = ExecutionService.executionMap(runContext, this);
+        Semaphore permits = new Semaphore(Math.max(1, runContext.render(this.concurrency).as(Integer.class).orElse(4)));
+
+        List<ChannelResult> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ChannelResult>> futures = this.channels.stream()
+                .map(channel -> executor.submit(() -> send(runContext, channel, variables, permits)))
+                .toList();
+
+            for (Future<ChannelResult> future : futures) {
+                results.add(future.get());
+            }
+        }
+
+        // the channel durations are recorded on the run context of the task, from the task thread
+        results.forEach(result -> runContext.metric(Timer.of("channel.duration", result.getDuration(), "channel", result.getId(), "state", result.getState().name())));
+
+        List<String> failed = results.stream()
+            .filter(result -> result.getState() == State.Type.FAILED)
+            .map(ChannelResult::getId)
+            .toList();
+
+        boolean fail = switch (runContext.render(this.failurePolicy).as(FailurePolicy.class).orElse(FailurePolicy.ANY_FAILED)) {
+            case ANY_FAILED -> !failed.isEmpty();
+            case ALL_FAILED -> failed.size() == results.size();
+            case NEVER -> false;
+        };
+
+        if (fail) {
+            throw new RuntimeException(failed.size() + " of " + results.size() + " notification channels failed: " + String.join(", ", failed));
+        }
+
+        return Output.builder()
+            .channels(results)
+            .build();
+    }
+
+    private static ChannelResult send(RunContext runContext, Task channel, Map<String, Object> variables, Semaphore permits) throws InterruptedException {
+        // each channel runs concurrently with its own run context, also bringing its plugin configuration
+        RunContext channelRunContext = runContext.cloneForPlugin(channel);
+
+        permits.acquire();
+        long start = System.nanoTime();
+
+        try {
+            ExecutionService.withExecutionVariables(variables, () -> ((RunnableTask<?>) channel).run(channelRunContext));
+
+            return ChannelResult.builder()
+                .id(channel.getId())
+                .type(channel.getType())
+                .state(State.Type.SUCCESS)
+                .duration(Duration.ofNanos(System.nanoTime() - start))
+                .build();
+        } catch (Exception e) {
+            channelRunContext.logger().warn("Unable to send the notification channel '{}': {}", channel.getId(), e.getMessage(), e);
+
+            return ChannelResult.builder()
+                .id(channel.getId())
+                .type(channel.getType())
+                .state(State.Type.FAILED)
+                .duration(Duration.ofNanos(System.nanoTime() - start))
+                .error(e.getMessage())
+                .build();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public enum FailurePolicy {
+        ANY_FAILED,
+        ALL_FAILED,
+        NEVER
+    }
+
+    @Getter
+    @Builder
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The result of each channel, in the order of the channels"
+        )
+        private List<ChannelResult> channels;
+    }
+
+    @Getter
+    @Builder
+    public static class ChannelResult {
+        @Schema(
+            title = "The channel task id"
+        )
+        private String id;
+
+        @Schema(
+            title = "The channel task type"
+        )
+        private String type;
+
+        @Schema(
+            title = "`SUCCESS` if the notification was sent, `FAILED` otherwise"
+        )
+        private State.Type state;
+
+        @Schema(
+            title = "The time spent sending the notification"
+        )
+        private Duration duration;
+
+        @Schema(
+            title = "The error message if the notification failed"
+        )
+        private String error;
+    }
+}
@@ -0,0 +1,25 @@
+package io.kestra.plugin.notifications;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+
+import java.util.Map;
+
+public interface TemplateInterface {
+    Property<Map<String, Object>> getTemplateRenderMap();
+
+    /**
+     * The variables used to render the message template.
+     * <p>
+     * {@code *Execution} tasks override it to hand their execution map to the renderer as is, wrapping it inside a
+     * {@link Property} would serialize the whole execution even if the template only reads a few of its fields.
+     */
+    default Map<String, Object> templateVariables(RunContext runContext) throws IllegalVariableEvaluationException {
+        if (this.getTemplateRenderMap() == null) {
+            return Map.of();
+        }
+
+        return runContext.render(this.getTemplateRenderMap()).asMap(String.class, Object.class);
+    }
+}
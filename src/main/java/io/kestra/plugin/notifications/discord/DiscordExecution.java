@@ -1,5 +1,6 @@
 package io.kestra.plugin.notifications.discord;
 
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.property.Property;
@@ -75,8 +76,12 @@ public class DiscordExecution extends DiscordTemplate implements ExecutionInterf
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
         this.templateUri = Property.ofValue("discord-template.peb");
-        this.templateRenderMap = Property.ofValue(ExecutionService.executionMap(runContext, this));
 
         return super.run(runContext);
     }
+
+    @Override
+    public Map<String, Object> templateVariables(RunContext runContext) throws IllegalVariableEvaluationException {
+        return ExecutionService.executionMap(runContext, this);
+    }
 }
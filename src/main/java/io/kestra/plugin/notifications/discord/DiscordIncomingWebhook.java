@@ -2,7 +2,6 @@ package io.kestra.plugin.notifications.discord;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.annotations.PluginProperty;
@@ -11,6 +10,7 @@ import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
 import io.kestra.plugin.notifications.AbstractHttpOptionsTask;
+import io.kestra.plugin.notifications.services.HttpRateLimiter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import lombok.EqualsAndHashCode;
@@ -20,6 +20,7 @@ import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 import java.net.URI;
+import java.time.Duration;
 
 @SuperBuilder
 @ToString
@@ -112,33 +113,41 @@ public class DiscordIncomingWebhook extends AbstractHttpOptionsTask {
 
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
-        String url = runContext.render(this.url);
+        var payload = JacksonMapper.ofJson() // explicitly pass it as a JsonNode to HttpRequest to avoid encoding issues
+            .readTree(
+                runContext.render(this.payload).as(String.class).orElse(null)
+            );
+
+        runContext.logger().debug("Send Discord webhook: {}", payload);
 
-        try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
-            var payload = JacksonMapper.ofJson() // explicitly pass it as a JsonNode to HttpRequest to avoid encoding issues
-                .readTree(
-                    runContext.render(this.payload).as(String.class).orElse(null)
-                );
+        return this.send(runContext, HttpRequest.JsonRequestBody.builder()
+            .content(payload)
+            .build());
+    }
 
-            runContext.logger().debug("Send Discord webhook: {}", payload);
+    @Override
+    protected HttpRateLimiter.Rate defaultRateLimit() {
+        // Discord webhooks allow five requests every two seconds
+        return new HttpRateLimiter.Rate(5, Duration.ofSeconds(2));
+    }
+
+    protected VoidOutput send(RunContext runContext, HttpRequest.RequestBody body) throws Exception {
+        String url = runContext.render(this.url);
 
-            HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
-                .addHeader("Content-Type", "application/json")
-                .uri(URI.create(url))
-                .method("POST")
-                .body(HttpRequest.JsonRequestBody.builder()
-                    .content(payload)
-                    .build());
+        HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
+            .addHeader("Content-Type", "application/json")
+            .uri(URI.create(url))
+            .method("POST")
+            .body(body);
 
-            HttpRequest request = requestBuilder.build();
+        HttpRequest request = requestBuilder.build();
 
-            HttpResponse<String> response = client.request(request, String.class);
+        HttpResponse<String> response = this.request(runContext, request, String.class);
 
-            runContext.logger().debug("Response: {}", response.getBody());
+        runContext.logger().debug("Response: {}", response.getBody());
 
-            if (response.getStatus().getCode() == 200) {
-                runContext.logger().info("Request succeeded");
-            }
+        if (response.getStatus().getCode() == 200) {
+            runContext.logger().info("Request succeeded");
         }
 
         return null;
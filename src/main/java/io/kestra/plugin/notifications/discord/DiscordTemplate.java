@@ -1,17 +1,18 @@
 package io.kestra.plugin.notifications.discord;
 
+import io.kestra.core.http.HttpRequest;
 import io.kestra.core.models.annotations.PluginProperty;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.notifications.TemplateInterface;
+import io.kestra.plugin.notifications.services.TemplateRegistry;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.jackson.Jacksonized;
-import org.apache.commons.io.IOUtils;
 
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static io.kestra.core.utils.Rethrow.throwFunction;
@@ -21,7 +22,7 @@ import static io.kestra.core.utils.Rethrow.throwFunction;
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class DiscordTemplate extends DiscordIncomingWebhook {
+public abstract class DiscordTemplate extends DiscordIncomingWebhook implements TemplateInterface {
 
     @Schema(
         title = "Template to use",
@@ -69,17 +70,9 @@ public abstract class DiscordTemplate extends DiscordIncomingWebhook {
         final Optional<String> renderedUri = runContext.render(this.templateUri).as(String.class);
 
         if (renderedUri.isPresent()) {
-            String template = IOUtils.toString(
-                Objects.requireNonNull(this.getClass()
-                    .getClassLoader().
-                    getResourceAsStream(renderedUri.get())
-                ),
-                StandardCharsets.UTF_8
-            );
+            String template = TemplateRegistry.get(this.getClass().getClassLoader(), renderedUri.get());
 
-            String render = runContext.render(template, templateRenderMap != null ?
-                runContext.render(templateRenderMap).asMap(String.class, Object.class) :
-                Map.of());
+            String render = runContext.render(template, this.templateVariables(runContext));
             mainMap = (Map<String, Object>) JacksonMapper.ofJson().readValue(render, Object.class);
         }
 
@@ -116,9 +109,9 @@ public abstract class DiscordTemplate extends DiscordIncomingWebhook {
             mainMap.put("content", runContext.render(this.content).as(String.class).get());
         }
 
-        this.payload = Property.ofValue(JacksonMapper.ofJson().writeValueAsString(mainMap));
-
-        return super.run(runContext);
+        return this.send(runContext, HttpRequest.JsonRequestBody.builder()
+            .content(mainMap)
+            .build());
     }
 
     @Getter
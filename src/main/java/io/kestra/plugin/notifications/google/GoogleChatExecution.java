@@ -1,5 +1,6 @@
 package io.kestra.plugin.notifications.google;
 
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.property.Property;
@@ -69,8 +70,12 @@ public class GoogleChatExecution extends GoogleChatTemplate implements Execution
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
         this.templateUri = Property.ofValue("google-chat-template.peb");
-        this.templateRenderMap = Property.ofValue(ExecutionService.executionMap(runContext, this));
 
         return super.run(runContext);
     }
+
+    @Override
+    public Map<String, Object> templateVariables(RunContext runContext) throws IllegalVariableEvaluationException {
+        return ExecutionService.executionMap(runContext, this);
+    }
 }
@@ -1,21 +1,21 @@
 package io.kestra.plugin.notifications.google;
 
+import io.kestra.core.http.HttpRequest;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.notifications.TemplateInterface;
+import io.kestra.plugin.notifications.services.TemplateRegistry;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
-import org.apache.commons.io.IOUtils;
 
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 @SuperBuilder
 @ToString
@@ -23,7 +23,7 @@ import java.util.Objects;
 @Getter
 @NoArgsConstructor
 @Deprecated
-public abstract class GoogleChatTemplate extends GoogleChatIncomingWebhook {
+public abstract class GoogleChatTemplate extends GoogleChatIncomingWebhook implements TemplateInterface {
 
     @Schema(
         title = "Template to use",
@@ -48,17 +48,9 @@ public abstract class GoogleChatTemplate extends GoogleChatIncomingWebhook {
 
         final var renderedUri = runContext.render(this.templateUri).as(String.class);
         if (renderedUri.isPresent()) {
-            String template = IOUtils.toString(
-                Objects.requireNonNull(this.getClass()
-                    .getClassLoader()
-                    .getResourceAsStream(renderedUri.get())),
-                StandardCharsets.UTF_8
-            );
+            String template = TemplateRegistry.get(this.getClass().getClassLoader(), renderedUri.get());
 
-            String render = runContext.render(template, templateRenderMap != null ?
-                runContext.render(templateRenderMap).asMap(String.class, Object.class) :
-                Map.of()
-            );
+            String render = runContext.render(template, this.templateVariables(runContext));
             map = (Map<String, Object>) JacksonMapper.ofJson().readValue(render, Object.class);
         }
 
@@ -66,9 +58,9 @@ public abstract class GoogleChatTemplate extends GoogleChatIncomingWebhook {
             map.put("text", runContext.render(this.text).as(String.class).get());
         }
 
-        this.payload = Property.ofValue(JacksonMapper.ofJson().writeValueAsString(map));
-
-        return super.run(runContext);
+        return this.send(runContext, HttpRequest.JsonRequestBody.builder()
+            .content(map)
+            .build());
     }
 
 }
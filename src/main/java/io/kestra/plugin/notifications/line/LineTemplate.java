@@ -2,24 +2,22 @@ package io.kestra.plugin.notifications.line;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
 import io.kestra.plugin.notifications.AbstractHttpOptionsTask;
+import io.kestra.plugin.notifications.TemplateInterface;
+import io.kestra.plugin.notifications.services.TemplateRegistry;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
-import org.apache.commons.io.IOUtils;
 
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 @SuperBuilder
 @ToString
@@ -30,7 +28,7 @@ import java.util.Objects;
     title = "Send a LINE broadcast message",
     description = "Send a broadcast message to all users who have added the LINE Official Account. Warning: limited to 60 requests per hour."
 )
-public abstract class LineTemplate extends AbstractHttpOptionsTask {
+public abstract class LineTemplate extends AbstractHttpOptionsTask implements TemplateInterface {
 
     @Schema(title = "LINE Messaging API URL", description = "The LINE API endpoint URL to broadcast a message to a channel")
     @Builder.Default
@@ -68,32 +66,30 @@ public abstract class LineTemplate extends AbstractHttpOptionsTask {
 
         String messageText = getMessageText(runContext);
 
-        try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
-            Map<String, Object> messagePayload = new HashMap<>();
-            messagePayload.put("messages", List.of(Map.of(
-                "type", "text",
-                "text", messageText
-            )));
+        Map<String, Object> messagePayload = new HashMap<>();
+        messagePayload.put("messages", List.of(Map.of(
+            "type", "text",
+            "text", messageText
+        )));
 
-            String payload = JacksonMapper.ofJson().writeValueAsString(messagePayload);
+        String payload = JacksonMapper.ofJson().writeValueAsString(messagePayload);
 
-            runContext.logger().debug("Broadcasting LINE message: {}", payload);
+        runContext.logger().debug("Broadcasting LINE message: {}", payload);
 
-            HttpRequest request = createRequestBuilder(runContext)
-                .addHeader("Content-Type", "application/json")
-                .addHeader("Authorization", "Bearer " + rChannelAccessToken)
-                .uri(URI.create(rUrl))
-                .method("POST")
-                .body(HttpRequest.StringRequestBody.builder().content(payload).build())
-                .build();
+        HttpRequest request = createRequestBuilder(runContext)
+            .addHeader("Content-Type", "application/json")
+            .addHeader("Authorization", "Bearer " + rChannelAccessToken)
+            .uri(URI.create(rUrl))
+            .method("POST")
+            .body(HttpRequest.StringRequestBody.builder().content(payload).build())
+            .build();
 
-            HttpResponse<String> response = client.request(request, String.class);
+        HttpResponse<String> response = this.request(runContext, request, String.class);
 
-            if (response.getStatus().getCode() == 200) {
-                runContext.logger().info("LINE broadcast message sent successfully");
-            } else {
-                runContext.logger().error("Failed to send LINE broadcast message: {}", response.getBody());
-            }
+        if (response.getStatus().getCode() == 200) {
+            runContext.logger().info("LINE broadcast message sent successfully");
+        } else {
+            runContext.logger().error("Failed to send LINE broadcast message: {}", response.getBody());
         }
 
         return null;
@@ -107,14 +103,9 @@ public abstract class LineTemplate extends AbstractHttpOptionsTask {
 
         final var rTemplateUri = runContext.render(this.templateUri).as(String.class);
         if (rTemplateUri.isPresent()) {
-            String template = IOUtils.toString(
-                Objects.requireNonNull(
-                    this.getClass().getClassLoader().getResourceAsStream(rTemplateUri.get())),
-                StandardCharsets.UTF_8);
-
-            Map<String, Object> templateVars = templateRenderMap != null
-                ? runContext.render(templateRenderMap).asMap(String.class, Object.class)
-                : Map.of();
+            String template = TemplateRegistry.get(this.getClass().getClassLoader(), rTemplateUri.get());
+
+            Map<String, Object> templateVars = this.templateVariables(runContext);
 
             return runContext.render(template, templateVars);
         }
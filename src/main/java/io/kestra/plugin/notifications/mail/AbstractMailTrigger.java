@@ -1,11 +1,19 @@
 package io.kestra.plugin.notifications.mail;
 
+import io.kestra.core.models.annotations.PluginProperty;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.triggers.AbstractTrigger;
 import io.kestra.core.runners.RunContext;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.mail.Flags;
+import jakarta.mail.search.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -55,6 +63,24 @@ public abstract class AbstractMailTrigger extends AbstractTrigger {
     @Builder.Default
     protected final Property<Duration> interval = Property.ofValue(Duration.ofSeconds(60));
 
+    @Schema(title = "Include body", description = "Whether to download the text content of the emails. Headers and attachment metadata are always fetched, disabling it saves downloading the bodies.")
+    @Builder.Default
+    protected final Property<Boolean> includeBody = Property.ofValue(true);
+
+    @Schema(title = "Store attachments", description = "Whether to stream the attachments to internal storage, their URI being added to the attachments of each email.")
+    @Builder.Default
+    protected final Property<Boolean> storeAttachments = Property.ofValue(false);
+
+    @Schema(title = "Maximum inline body size", description = "The size in bytes above which the body of an email is streamed to internal storage and exposed as `bodyUri` instead of `body`. Bodies are always inlined if left empty.")
+    protected Property<Integer> maxInlineBodySize;
+
+    @Schema(
+        title = "Filter",
+        description = "Only the emails matching every criteria trigger the flow. With IMAP, the filter is evaluated by the server so the other emails are never downloaded; with POP3, it is evaluated on the headers of the new emails."
+    )
+    @PluginProperty(dynamic = true)
+    protected Filter filter;
+
     protected MailService.MailConfiguration renderMailConfiguration(RunContext runContext) throws Exception {
         String rProtocol = String.valueOf(runContext.render(this.protocol).as(MailService.Protocol.class).orElseThrow());
         String rHost = runContext.render(this.host).as(String.class).orElseThrow();
@@ -64,10 +90,64 @@ public abstract class AbstractMailTrigger extends AbstractTrigger {
         Boolean rSsl = runContext.render(this.ssl).as(Boolean.class).orElse(true);
         Boolean rTrustAllCertificates = runContext.render(this.trustAllCertificates).as(Boolean.class).orElse(false);
         Duration rInterval = runContext.render(this.interval).as(Duration.class).orElse(getInterval());
+        Boolean rIncludeBody = runContext.render(this.includeBody).as(Boolean.class).orElse(true);
+        Boolean rStoreAttachments = runContext.render(this.storeAttachments).as(Boolean.class).orElse(false);
+        Integer rMaxInlineBodySize = runContext.render(this.maxInlineBodySize).as(Integer.class).orElse(null);
+        SearchTerm rSearchTerm = this.filter != null ? this.filter.toSearchTerm(runContext, MailService.Protocol.valueOf(rProtocol)) : null;
 
         Integer rPort = runContext.render(this.port).as(Integer.class)
             .orElse(MailService.getDefaultPort(MailService.Protocol.valueOf(rProtocol), rSsl));
 
-        return new MailService.MailConfiguration(rProtocol, rHost, rPort, rUsername, rPassword, rFolder, rSsl, rTrustAllCertificates, rInterval);
+        return new MailService.MailConfiguration(rProtocol, rHost, rPort, rUsername, rPassword, rFolder, rSsl, rTrustAllCertificates, rInterval, rIncludeBody, rStoreAttachments, rMaxInlineBodySize, rSearchTerm);
+    }
+
+    @Getter
+    @Builder
+    public static class Filter {
+        @Schema(title = "Sender", description = "Only the emails whose sender contains this value")
+        private Property<String> from;
+
+        @Schema(title = "Subject", description = "Only the emails whose subject contains this value, ignoring case")
+        private Property<String> subject;
+
+        @Schema(title = "Unseen", description = "Only the emails not read yet (IMAP only)")
+        private Property<Boolean> unseen;
+
+        @Schema(title = "Since", description = "Only the emails received since this date. POP3 has no received date, the sent date of the emails is used instead.")
+        private Property<ZonedDateTime> since;
+
+        @Schema(title = "Headers", description = "Only the emails whose headers contain these values, by header name")
+        private Property<Map<String, String>> headers;
+
+        SearchTerm toSearchTerm(RunContext runContext, MailService.Protocol protocol) throws Exception {
+            List<SearchTerm> terms = new ArrayList<>();
+
+            runContext.render(from).as(String.class).ifPresent(value -> terms.add(new FromStringTerm(value)));
+            runContext.render(subject).as(String.class).ifPresent(value -> terms.add(new SubjectTerm(value)));
+
+            if (runContext.render(unseen).as(Boolean.class).orElse(false)) {
+                terms.add(new FlagTerm(new Flags(Flags.Flag.SEEN), false));
+            }
+
+            var rSince = runContext.render(since).as(ZonedDateTime.class);
+            if (rSince.isPresent()) {
+                Date date = Date.from(rSince.get().toInstant());
+
+                // a POP3 message has no received date, a ReceivedDateTerm would never match
+                terms.add(protocol == MailService.Protocol.POP3 ?
+                    new SentDateTerm(ComparisonTerm.GE, date) :
+                    new ReceivedDateTerm(ComparisonTerm.GE, date)
+                );
+            }
+
+            runContext.render(headers).asMap(String.class, String.class)
+                .forEach((name, value) -> terms.add(new HeaderTerm(name, value)));
+
+            return switch (terms.size()) {
+                case 0 -> null;
+                case 1 -> terms.getFirst();
+                default -> new AndTerm(terms.toArray(SearchTerm[]::new));
+            };
+        }
     }
-}
\ No newline at end of file
+}
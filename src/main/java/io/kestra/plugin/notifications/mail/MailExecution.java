@@ -1,5 +1,6 @@
 package io.kestra.plugin.notifications.mail;
 
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.property.Property;
@@ -80,8 +81,12 @@ public class MailExecution extends MailTemplate implements ExecutionInterface {
     public VoidOutput run(RunContext runContext) throws Exception {
         this.templateUri = Property.ofValue("mail-template.hbs.peb");
         this.textTemplateUri = Property.ofValue("text-template.hbs.peb");
-        this.templateRenderMap = Property.ofValue(ExecutionService.executionMap(runContext, this));
 
         return super.run(runContext);
     }
+
+    @Override
+    public Map<String, Object> templateVariables(RunContext runContext) throws IllegalVariableEvaluationException {
+        return ExecutionService.executionMap(runContext, this);
+    }
 }
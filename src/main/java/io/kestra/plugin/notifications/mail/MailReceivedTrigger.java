@@ -25,6 +25,8 @@ import java.util.*;
     title = "Trigger on new email messages.",
     description = """
         Monitor a mailbox for new emails via IMAP or POP3 protocols.
+        With IMAP, each check resumes from the last message seen by the previous one, so every new email is fetched once.
+        With POP3, the messages already seen are recognized by their UIDL and are not downloaded again.
 
         This task is deprecated and has been replaced by `plugin-email (io.kestra.plugin.email)`.
         """
@@ -72,10 +74,13 @@ public class MailReceivedTrigger extends AbstractMailTrigger
 
         try {
             ZonedDateTime lastCheckTime = getLastCheckTime(context,mailConfig.interval);
-            List<MailService.EmailData> newEmails = MailService.fetchNewEmails(runContext, mailConfig.protocol,
-                    mailConfig.host, mailConfig.port,
-                    mailConfig.username, mailConfig.password, mailConfig.folder, mailConfig.ssl,
-                    mailConfig.trustAllCertificates, lastCheckTime);
+            List<MailService.EmailData> newEmails;
+
+            if (MailService.Protocol.IMAP.name().equals(mailConfig.protocol)) {
+                newEmails = fetchNewImapEmails(runContext, mailConfig, lastCheckTime);
+            } else {
+                newEmails = fetchNewPop3Emails(runContext, mailConfig, lastCheckTime);
+            }
 
             if (newEmails.isEmpty()) {
                 return Optional.empty();
@@ -100,6 +105,41 @@ public class MailReceivedTrigger extends AbstractMailTrigger
         }
     }
 
+    /**
+     * IMAP polls resume from the last UID seen by the previous poll, so no message is missed whatever the number of
+     * messages received between two polls.
+     */
+    private List<MailService.EmailData> fetchNewImapEmails(RunContext runContext, MailService.MailConfiguration mailConfig,
+                                                           ZonedDateTime lastCheckTime) throws Exception {
+        MailService.UidCheckpoint checkpoint = MailService.readState(runContext, this.getId(), MailService.UidCheckpoint.class)
+            .orElse(null);
+
+        MailService.UidFetchResult result = MailService.fetchNewEmailsByUid(runContext, mailConfig, checkpoint, lastCheckTime);
+
+        if (!result.checkpoint().equals(checkpoint)) {
+            MailService.writeState(runContext, this.getId(), result.checkpoint());
+        }
+
+        return result.emails();
+    }
+
+    /**
+     * POP3 polls skip the messages whose UIDL was seen by the previous poll, so only the new messages are downloaded.
+     */
+    private List<MailService.EmailData> fetchNewPop3Emails(RunContext runContext, MailService.MailConfiguration mailConfig,
+                                                           ZonedDateTime lastCheckTime) throws Exception {
+        MailService.UidlCheckpoint checkpoint = MailService.readState(runContext, this.getId(), MailService.UidlCheckpoint.class)
+            .orElse(null);
+
+        MailService.UidlFetchResult result = MailService.fetchNewEmailsByUidl(runContext, mailConfig, checkpoint, lastCheckTime);
+
+        if (result.checkpoint() != null && !result.checkpoint().equals(checkpoint)) {
+            MailService.writeState(runContext, this.getId(), result.checkpoint());
+        }
+
+        return result.emails();
+    }
+
     private ZonedDateTime getLastCheckTime(TriggerContext context,Duration interval){
             if(context.getNextExecutionDate()==null){
                 return ZonedDateTime.now().minus(getInterval());
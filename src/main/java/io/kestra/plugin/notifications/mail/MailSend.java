@@ -2,6 +2,7 @@ package io.kestra.plugin.notifications.mail;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.property.Property;
@@ -11,7 +12,6 @@ import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.mail.util.ByteArrayDataSource;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -21,11 +21,10 @@ import org.simplejavamail.api.email.EmailPopulatingBuilder;
 import org.simplejavamail.api.mailer.Mailer;
 import org.simplejavamail.api.mailer.config.TransportStrategy;
 import org.simplejavamail.email.EmailBuilder;
-import org.simplejavamail.mailer.MailerBuilder;
 import org.slf4j.Logger;
 
-import java.io.InputStream;
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -231,6 +230,31 @@ public class MailSend extends Task implements RunnableTask<VoidOutput> {
     )
     private Property<List<String>> trustedHosts;
 
+    @Schema(
+        title = "The number of SMTP connections kept open to the server, even when idle",
+        description = "SMTP connections are pooled on the worker and shared by the tasks sending emails with the same server settings."
+    )
+    @Builder.Default
+    private final Property<Integer> connectionPoolCoreSize = Property.ofValue(0);
+
+    @Schema(
+        title = "The maximum number of SMTP connections opened to the server at the same time"
+    )
+    @Builder.Default
+    private final Property<Integer> connectionPoolMaxSize = Property.ofValue(4);
+
+    @Schema(
+        title = "The maximum time to wait for a free SMTP connection of the pool"
+    )
+    @Builder.Default
+    private final Property<Duration> connectionPoolClaimTimeout = Property.ofValue(Duration.ofMinutes(1));
+
+    @Schema(
+        title = "The time after which an idle SMTP connection above the core size is closed"
+    )
+    @Builder.Default
+    private final Property<Duration> connectionPoolExpireAfter = Property.ofValue(Duration.ofSeconds(30));
+
     /* Mail info */
     @Schema(
         title = "The address of the sender of this email"
@@ -283,6 +307,13 @@ public class MailSend extends Task implements RunnableTask<VoidOutput> {
     )
     private Property<Object> embeddedImages;
 
+    @Schema(
+        title = "The maximum size in bytes of each attachment and embedded image",
+        description = "Attachments are streamed from the internal storage to the email server, this limit fails the task " +
+            "before connecting to the server when a file is bigger than what the server accepts. No limit if left empty."
+    )
+    private Property<Long> maxAttachmentSize;
+
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
         Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
@@ -321,41 +352,50 @@ public class MailSend extends Task implements RunnableTask<VoidOutput> {
 
         Email email = builder.buildEmail();
 
-        var rTrustedHosts = runContext.render(trustedHosts).asList(String.class);
-        var mailerBuilder = MailerBuilder
-            .withSMTPServer(
-                runContext.render(this.host).as(String.class).orElse(null),
-                runContext.render(this.port).as(Integer.class).orElse(null),
-                runContext.render(this.username).as(String.class).orElse(null),
-                runContext.render(this.password).as(String.class).orElse(null)
-            )
-            .withTransportStrategy(runContext.render(transportStrategy).as(TransportStrategy.class).orElse(TransportStrategy.SMTPS))
-            .withSessionTimeout(runContext.render(sessionTimeout).as(Integer.class).orElse(10000))
-            .verifyingServerIdentity(runContext.render(verifyServerIdentity).as(Boolean.class).orElse(true));
-
-        if (!rTrustedHosts.isEmpty()) {
-            mailerBuilder = mailerBuilder
-                .trustingAllHosts(false)
-                .trustingSSLHosts(rTrustedHosts.toArray(new String[0]));
-        }
-
-        try (Mailer mailer = mailerBuilder.buildMailer()) {
-            mailer.sendMail(email);
+        try (MailerCache.Lease lease = MailerCache.acquire(runContext, this.mailerKey(runContext))) {
+            lease.getMailer().sendMail(email);
         }
 
         return null;
     }
 
+    /**
+     * The key of the pooled {@link Mailer} matching the server settings of this task.
+     */
+    protected MailerCache.Key mailerKey(RunContext runContext) throws IllegalVariableEvaluationException {
+        return new MailerCache.Key(
+            runContext.render(this.host).as(String.class).orElse(null),
+            runContext.render(this.port).as(Integer.class).orElse(null),
+            runContext.render(this.username).as(String.class).orElse(null),
+            runContext.render(this.password).as(String.class).orElse(null),
+            runContext.render(transportStrategy).as(TransportStrategy.class).orElse(TransportStrategy.SMTPS),
+            runContext.render(sessionTimeout).as(Integer.class).orElse(10000),
+            runContext.render(verifyServerIdentity).as(Boolean.class).orElse(true),
+            runContext.render(trustedHosts).asList(String.class),
+            runContext.render(connectionPoolCoreSize).as(Integer.class).orElse(0),
+            runContext.render(connectionPoolMaxSize).as(Integer.class).orElse(4),
+            runContext.render(connectionPoolClaimTimeout).as(Duration.class).orElse(Duration.ofMinutes(1)),
+            runContext.render(connectionPoolExpireAfter).as(Duration.class).orElse(Duration.ofSeconds(30))
+        );
+    }
+
     private List<AttachmentResource> attachmentResources(List<Attachment> attachments, RunContext runContext) throws Exception {
+        Long rMaxAttachmentSize = runContext.render(this.maxAttachmentSize).as(Long.class).orElse(null);
+
         return attachments
             .stream()
             .map(throwFunction(attachment -> {
-                InputStream inputStream = runContext.storage()
-                    .getFile(URI.create(runContext.render(attachment.getUri()).as(String.class).orElseThrow()));
+                String name = runContext.render(attachment.getName()).as(String.class).orElseThrow();
 
                 return new AttachmentResource(
-                    runContext.render(attachment.getName()).as(String.class).orElseThrow(),
-                    new ByteArrayDataSource(inputStream, runContext.render(attachment.getContentType()).as(String.class).orElseThrow())
+                    name,
+                    StorageDataSource.of(
+                        runContext,
+                        URI.create(runContext.render(attachment.getUri()).as(String.class).orElseThrow()),
+                        name,
+                        runContext.render(attachment.getContentType()).as(String.class).orElseThrow(),
+                        rMaxAttachmentSize
+                    )
                 );
             }))
             .toList();
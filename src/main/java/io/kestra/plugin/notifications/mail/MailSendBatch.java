@@ -0,0 +1,383 @@
+package io.kestra.plugin.notifications.mail;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.simplejavamail.api.email.EmailPopulatingBuilder;
+import org.simplejavamail.api.mailer.Mailer;
+import org.simplejavamail.api.mailer.config.TransportStrategy;
+import org.simplejavamail.email.EmailBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Deprecated
+@Schema(
+    title = "Send personalized emails to many recipients.",
+    description = """
+        Each recipient, or each row of an internal storage ION file, gets its own email. The subject and contents are rendered for each row, the row being available as the `row` variable.
+
+        Emails are sent in parallel over a pool of persistent SMTP connections shared with the other mail tasks of the worker. The status of each row is written to an ION file in internal storage.
+
+        This task is deprecated and has been replaced by `plugin-email (io.kestra.plugin.email)`.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Send a personalized report to each customer of an ION file with `to`, `name` and `report` columns.",
+            full = true,
+            code = """
+                id: send_reports
+                namespace: company.team
+
+                inputs:
+                  - id: customers
+                    type: FILE
+
+                tasks:
+                  - id: send_emails
+                    type: io.kestra.plugin.notifications.mail.MailSendBatch
+                    host: mail.privateemail.com
+                    port: 465
+                    username: "{{ secret('EMAIL_USERNAME') }}"
+                    password: "{{ secret('EMAIL_PASSWORD') }}"
+                    from: hello@kestra.io
+                    rows: "{{ inputs.customers }}"
+                    subject: "Your weekly report, {{ row.name }}"
+                    htmlTextContent: "Hello {{ row.name }}, here is your report: {{ row.report }}"
+                """
+        ),
+        @Example(
+            title = "Send the same email to a list of recipients, one email each.",
+            full = true,
+            code = """
+                id: send_announcement
+                namespace: company.team
+
+                tasks:
+                  - id: send_emails
+                    type: io.kestra.plugin.notifications.mail.MailSendBatch
+                    host: mail.privateemail.com
+                    port: 465
+                    username: "{{ secret('EMAIL_USERNAME') }}"
+                    password: "{{ secret('EMAIL_PASSWORD') }}"
+                    from: hello@kestra.io
+                    recipients:
+                      - alice@kestra.io
+                      - bob@kestra.io
+                    subject: "Maintenance planned tonight"
+                    plainTextContent: "Hello {{ row.to }}, the platform will be down from 10pm to 11pm."
+                """
+        )
+    }
+)
+public class MailSendBatch extends Task implements RunnableTask<MailSendBatch.Output> {
+    /* Server info */
+    @Schema(
+        title = "The email server host"
+    )
+    private Property<String> host;
+
+    @Schema(
+        title = "The email server port"
+    )
+    private Property<Integer> port;
+
+    @Schema(
+        title = "The email server username"
+    )
+    private Property<String> username;
+
+    @Schema(
+        title = "The email server password"
+    )
+    private Property<String> password;
+
+    @Schema(
+        title = "The optional transport strategy",
+        description = "Will default to SMTPS if left empty"
+    )
+    @Builder.Default
+    private Property<TransportStrategy> transportStrategy = Property.ofValue(TransportStrategy.SMTPS);
+
+    @Schema(
+        title = "Integer value in milliseconds. Default is 10000 milliseconds, i.e. 10 seconds",
+        description = "It controls the maximum timeout value when sending emails."
+    )
+    @Builder.Default
+    private Property<Integer> sessionTimeout = Property.ofValue(10000);
+
+    @Schema(
+        title = "Whether to verify the server identity",
+        description = "Will default to true if left empty"
+    )
+    @Builder.Default
+    private Property<Boolean> verifyServerIdentity = Property.ofValue(true);
+
+    @Schema(
+        title = "Trusted SSL/TLS hosts",
+        description = "If provided, only the specified hosts will be trusted for SSL/TLS connections"
+    )
+    private Property<List<String>> trustedHosts;
+
+    @Schema(
+        title = "The number of emails sent at the same time",
+        description = "It is also the maximum number of SMTP connections opened to the server."
+    )
+    @Builder.Default
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    /* Mail info */
+    @Schema(
+        title = "The address of the sender of the emails"
+    )
+    @NotNull
+    private Property<String> from;
+
+    @Schema(
+        title = "The recipients, each one receiving its own email",
+        description = "Each recipient is available as `row.to` in the templates. Either `recipients` or `rows` must be set."
+    )
+    private Property<List<String>> recipients;
+
+    @Schema(
+        title = "The URI of an internal storage ION file with one row per email",
+        description = "Each row must have a `to` column and can have a `subject` one overriding the task subject, " +
+            "all the columns are available through the `row` variable in the templates. " +
+            "CSV files must be converted to ION first, for example with `io.kestra.plugin.serdes.csv.CsvToIon`."
+    )
+    private Property<String> rows;
+
+    @Schema(
+        title = "The subject of the emails, rendered for each row"
+    )
+    private Property<String> subject;
+
+    @Schema(
+        title = "The email message body in HTML text, rendered for each row"
+    )
+    private Property<String> htmlTextContent;
+
+    @Schema(
+        title = "The email message body in plain text, rendered for each row"
+    )
+    private Property<String> plainTextContent;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
+
+        int rConcurrency = Math.max(1, runContext.render(this.concurrency).as(Integer.class).orElse(4));
+        String rFrom = runContext.render(this.from).as(String.class).orElseThrow();
+
+        MailerCache.Key key = new MailerCache.Key(
+            runContext.render(this.host).as(String.class).orElse(null),
+            runContext.render(this.port).as(Integer.class).orElse(null),
+            runContext.render(this.username).as(String.class).orElse(null),
+            runContext.render(this.password).as(String.class).orElse(null),
+            runContext.render(this.transportStrategy).as(TransportStrategy.class).orElse(TransportStrategy.SMTPS),
+            runContext.render(this.sessionTimeout).as(Integer.class).orElse(10000),
+            runContext.render(this.verifyServerIdentity).as(Boolean.class).orElse(true),
+            runContext.render(this.trustedHosts).asList(String.class),
+            0,
+            rConcurrency,
+            Duration.ofMinutes(1),
+            Duration.ofSeconds(30)
+        );
+
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+        long sent = 0;
+        long failed = 0;
+        long start = System.nanoTime();
+
+        try (
+            MailerCache.Lease lease = MailerCache.acquire(runContext, key);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile), FileSerde.BUFFER_SIZE)
+        ) {
+            Scheduler scheduler = Schedulers.fromExecutor(executor);
+
+            // flatMapSequential keeps the statuses in the order of the rows while sending them in parallel
+            Flux<RowStatus> statuses = this.readRows(runContext)
+                .index()
+                .flatMapSequential(
+                    row -> Mono.fromCallable(() -> this.send(runContext, lease.getMailer(), rFrom, row.getT1(), row.getT2())).subscribeOn(scheduler),
+                    rConcurrency
+                );
+
+            // the statuses are logged, counted and written back on the task thread, the sending threads only render
+            for (RowStatus status : statuses.toIterable()) {
+                if (status.getState() == RowStatus.State.SENT) {
+                    sent++;
+                } else {
+                    failed++;
+                    runContext.logger().warn("Unable to send the email of row {} to {}: {}", status.getIndex(), status.getTo(), status.getError());
+                }
+
+                FileSerde.write(output, status);
+            }
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        long total = sent + failed;
+
+        runContext.metric(Counter.of("sent", sent));
+        runContext.metric(Counter.of("failed", failed));
+        runContext.metric(Timer.of("duration", duration));
+
+        runContext.logger().info("Sent {} emails out of {} in {}", sent, total, duration);
+
+        return Output.builder()
+            .uri(runContext.storage().putFile(tempFile))
+            .total(total)
+            .sent(sent)
+            .failed(failed)
+            .duration(duration)
+            .throughput(duration.isZero() ? total : total * 1_000_000_000D / duration.toNanos())
+            .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Flux<Map<String, Object>> readRows(RunContext runContext) throws Exception {
+        var rRows = runContext.render(this.rows).as(String.class);
+        if (rRows.isPresent()) {
+            URI uri = URI.create(rRows.get());
+
+            return Flux.using(
+                () -> new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8), FileSerde.BUFFER_SIZE),
+                reader -> FileSerde.readAll(reader).map(row -> (Map<String, Object>) row),
+                reader -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            );
+        }
+
+        List<String> rRecipients = runContext.render(this.recipients).asList(String.class);
+        if (rRecipients.isEmpty()) {
+            throw new IllegalArgumentException("Either 'recipients' or 'rows' must be provided");
+        }
+
+        return Flux.fromIterable(rRecipients).map(to -> Map.of("to", to));
+    }
+
+    /**
+     * Called from the sending threads, so the run context is only used to render the templates of the row: its
+     * logger, metrics and storage are only used from the task thread.
+     */
+    private RowStatus send(RunContext runContext, Mailer mailer, String from, long index, Map<String, Object> row) {
+        String to = row.get("to") != null ? row.get("to").toString() : null;
+
+        try {
+            if (to == null) {
+                throw new IllegalArgumentException("Row " + index + " has no 'to' column");
+            }
+
+            Map<String, Object> variables = Map.of("row", row);
+
+            String rSubject = row.get("subject") != null ?
+                row.get("subject").toString() :
+                runContext.render(this.subject).as(String.class, variables).orElse(null);
+
+            EmailPopulatingBuilder builder = EmailBuilder.startingBlank()
+                .to(to)
+                .from(from)
+                .withSubject(rSubject)
+                .withHTMLText(runContext.render(this.htmlTextContent).as(String.class, variables).orElse(null))
+                .withPlainText(runContext.render(this.plainTextContent).as(String.class, variables).orElse("Please view this email in a modern email client"));
+
+            mailer.sendMail(builder.buildEmail());
+
+            return RowStatus.builder()
+                .index(index)
+                .to(to)
+                .state(RowStatus.State.SENT)
+                .build();
+        } catch (Exception e) {
+            return RowStatus.builder()
+                .index(index)
+                .to(to)
+                .state(RowStatus.State.FAILED)
+                .error(e.getMessage())
+                .build();
+        }
+    }
+
+    @Getter
+    @Builder
+    public static class RowStatus {
+        private long index;
+        private String to;
+        private State state;
+        private String error;
+
+        public enum State {
+            SENT,
+            FAILED
+        }
+    }
+
+    @Getter
+    @Builder
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The URI of the ION file with the status of each row",
+            description = "Each status has the `index` of the row, its recipient `to`, its `state` (`SENT` or `FAILED`) and the `error` if any."
+        )
+        private URI uri;
+
+        @Schema(
+            title = "The number of rows"
+        )
+        private long total;
+
+        @Schema(
+            title = "The number of emails sent"
+        )
+        private long sent;
+
+        @Schema(
+            title = "The number of emails that could not be sent"
+        )
+        private long failed;
+
+        @Schema(
+            title = "The time spent sending the emails"
+        )
+        private Duration duration;
+
+        @Schema(
+            title = "The number of rows processed per second"
+        )
+        private double throughput;
+    }
+}
@@ -2,22 +2,38 @@ package io.kestra.plugin.notifications.mail;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.mail.*;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.internet.MimeMultipart;
+import jakarta.mail.search.AndTerm;
+import jakarta.mail.search.ComparisonTerm;
+import jakarta.mail.search.ReceivedDateTerm;
+import jakarta.mail.search.SearchTerm;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.experimental.UtilityClass;
+import org.eclipse.angus.mail.pop3.POP3Folder;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
 
 @UtilityClass
 public class MailService {
+    private static final String STATE_NAME = "mail-trigger";
+    // the UIDLs of the most recent messages are enough to detect the new ones, as POP3 lists the messages by arrival
+    private static final int MAX_SEEN_UIDLS = 10_000;
 
     public enum Protocol {
         IMAP,
@@ -63,11 +79,23 @@ public class MailService {
         @Schema(title = "Email body content")
         private final String body;
 
+        @Schema(
+            title = "URI of the email body in internal storage",
+            description = "Set instead of `body` when the body is bigger than `maxInlineBodySize`."
+        )
+        private final URI bodyUri;
+
         @Schema(title = "Message ID")
         private final String messageId;
 
         @Schema(title = "Email attachments")
         private final List<AttachmentInfo> attachments;
+
+        @Schema(title = "Mailbox the email was found in")
+        private final String mailbox;
+
+        @Schema(title = "Folder the email was found in")
+        private final String folder;
     }
 
     @Builder
@@ -82,6 +110,12 @@ public class MailService {
 
         @Schema(title = "File size in bytes")
         private final Integer size;
+
+        @Schema(
+            title = "URI of the attachment in internal storage",
+            description = "Only set when `storeAttachments` is enabled."
+        )
+        private final URI uri;
     }
 
     @Builder
@@ -96,6 +130,38 @@ public class MailService {
         public final Boolean ssl;
         public final Boolean trustAllCertificates;
         public final Duration interval;
+        public final Boolean includeBody;
+        public final Boolean storeAttachments;
+        public final Integer maxInlineBodySize;
+        // compiled from the trigger filter, null to match every email
+        public final SearchTerm searchTerm;
+
+        public boolean includeBody() {
+            return includeBody == null || includeBody;
+        }
+
+        public boolean storeAttachments() {
+            return storeAttachments != null && storeAttachments;
+        }
+    }
+
+    /**
+     * The position of an IMAP trigger in its folder: every message with a UID above {@code lastUid} is new, as long as
+     * the server keeps the same {@code uidValidity}.
+     */
+    public record UidCheckpoint(String mailbox, long uidValidity, long lastUid) {
+    }
+
+    public record UidFetchResult(List<EmailData> emails, UidCheckpoint checkpoint) {
+    }
+
+    /**
+     * The UIDLs of the POP3 messages already seen, in the order of the maildrop, bounded to the most recent ones.
+     */
+    public record UidlCheckpoint(String mailbox, List<String> uidls) {
+    }
+
+    public record UidlFetchResult(List<EmailData> emails, UidlCheckpoint checkpoint) {
     }
 
     public static Properties setupMailProperties(String protocol, String host, Integer port, Boolean ssl,
@@ -149,12 +215,50 @@ public class MailService {
         };
     }
 
-    public static EmailData parseEmailData(MimeMessage message) throws MessagingException, IOException {
+    /**
+     * Parse a message whose headers and structure were prefetched with {@link #fetchProfile()}: only the text parts are
+     * downloaded, and only if the body is included. Attachments are described from the structure of the message and
+     * only downloaded when they are stored in internal storage.
+     */
+    public static EmailData parseEmailData(RunContext runContext, MimeMessage message, MailConfiguration config) throws MessagingException, IOException {
+        return parseEmailData(runContext, message, config, true);
+    }
+
+    /**
+     * @param withContent whether to walk the content of the message, false to only read its headers, which for POP3
+     *                    avoids downloading the whole message
+     */
+    private static EmailData parseEmailData(RunContext runContext, MimeMessage message, MailConfiguration config,
+                                            boolean withContent) throws MessagingException, IOException {
         Date receivedDate = message.getReceivedDate() != null ? message.getReceivedDate() : message.getSentDate();
         ZonedDateTime date = receivedDate != null
                 ? ZonedDateTime.ofInstant(receivedDate.toInstant(), ZonedDateTime.now().getZone())
                 : ZonedDateTime.now();
 
+        List<Part> bodyParts = new ArrayList<>();
+        List<AttachmentInfo> attachments = new ArrayList<>();
+
+        if (withContent && message.isMimeType("multipart/*")) {
+            parseMultipart(runContext, (MimeMultipart) message.getContent(), config, bodyParts, attachments);
+        } else if (withContent) {
+            bodyParts.add(message);
+        }
+
+        String body = null;
+        URI bodyUri = null;
+
+        if (config.includeBody() && withContent) {
+            if (config.maxInlineBodySize != null && bodySize(bodyParts) > config.maxInlineBodySize) {
+                bodyUri = storeBody(runContext, bodyParts);
+            } else {
+                StringBuilder builder = new StringBuilder();
+                for (Part part : bodyParts) {
+                    builder.append(part.getContent());
+                }
+                body = builder.toString();
+            }
+        }
+
         return EmailData.builder()
                 .subject(message.getSubject())
                 .from(getAddressString(message.getFrom()))
@@ -162,12 +266,28 @@ public class MailService {
                 .cc(getAddressList(message.getRecipients(Message.RecipientType.CC)))
                 .bcc(getAddressList(message.getRecipients(Message.RecipientType.BCC)))
                 .date(date)
-                .body(extractTextContent(message))
+                .body(body)
+                .bodyUri(bodyUri)
                 .messageId(message.getMessageID())
-                .attachments(extractAttachments(message))
+                .attachments(attachments)
+                .mailbox(config.username)
+                .folder(config.folder)
                 .build();
     }
 
+    /**
+     * The message data needed by {@link #parseEmailData(RunContext, MimeMessage, MailConfiguration)}, to be fetched in
+     * a single request for the whole batch of messages instead of one request per header.
+     */
+    public static FetchProfile fetchProfile() {
+        FetchProfile fetchProfile = new FetchProfile();
+        fetchProfile.add(FetchProfile.Item.ENVELOPE);
+        fetchProfile.add(FetchProfile.Item.CONTENT_INFO);
+        fetchProfile.add(FetchProfile.Item.SIZE);
+
+        return fetchProfile;
+    }
+
     private static String getAddressString(Address[] addresses) {
         if (addresses == null || addresses.length == 0) {
             return null;
@@ -184,135 +304,323 @@ public class MailService {
                 .toList();
     }
 
-    private static String extractTextContent(Message message) throws MessagingException, IOException {
-        if (message.isMimeType("multipart/*")) {
-            MimeMultipart multipart = (MimeMultipart) message.getContent();
-            return extractTextFromMultipart(multipart);
-        }
-        return (String) message.getContent();
-    }
-
-    private static String extractTextFromMultipart(MimeMultipart multipart) throws MessagingException, IOException {
-        StringBuilder result = new StringBuilder();
+    private static void parseMultipart(RunContext runContext, MimeMultipart multipart, MailConfiguration config,
+                                       List<Part> bodyParts, List<AttachmentInfo> attachments) throws MessagingException, IOException {
         int count = multipart.getCount();
 
         for (int i = 0; i < count; i++) {
             BodyPart bodyPart = multipart.getBodyPart(i);
-            if (bodyPart.isMimeType("multipart/*")) {
-                result.append(extractTextFromMultipart((MimeMultipart) bodyPart.getContent()));
+
+            if (isAttachment(bodyPart)) {
+                attachments.add(AttachmentInfo.builder()
+                        .filename(bodyPart.getFileName())
+                        .contentType(bodyPart.getContentType())
+                        .size(bodyPart.getSize())
+                        .uri(config.storeAttachments() ? storeAttachment(runContext, bodyPart) : null)
+                        .build());
+            } else if (bodyPart.isMimeType("multipart/*")) {
+                parseMultipart(runContext, (MimeMultipart) bodyPart.getContent(), config, bodyParts, attachments);
             } else {
-                result.append(bodyPart.getContent().toString());
+                bodyParts.add(bodyPart);
             }
         }
+    }
 
-        return result.toString();
+    private static long bodySize(List<Part> bodyParts) throws MessagingException {
+        long size = 0;
+        for (Part part : bodyParts) {
+            size += Math.max(0, part.getSize());
+        }
+
+        return size;
     }
 
-    private static List<AttachmentInfo> extractAttachments(Message message) throws MessagingException, IOException {
-        List<AttachmentInfo> attachments = new ArrayList<>();
+    /**
+     * Stream the decoded body parts to a single internal storage file, without holding them in memory.
+     */
+    private static URI storeBody(RunContext runContext, List<Part> bodyParts) throws MessagingException, IOException {
+        Path path = runContext.workingDir().createTempFile(".txt");
 
-        if (message.isMimeType("multipart/*")) {
-            MimeMultipart multipart = (MimeMultipart) message.getContent();
-            extractAttachmentsFromMultipart(multipart, attachments);
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            for (Part part : bodyParts) {
+                try (InputStream inputStream = part.getInputStream()) {
+                    inputStream.transferTo(outputStream);
+                }
+            }
         }
 
-        return attachments;
+        return putFile(runContext, path);
     }
 
-    private static void extractAttachmentsFromMultipart(MimeMultipart multipart, List<AttachmentInfo> attachments)
-            throws MessagingException, IOException {
-        int count = multipart.getCount();
+    private static URI storeAttachment(RunContext runContext, BodyPart bodyPart) throws MessagingException, IOException {
+        String filename = bodyPart.getFileName();
+        String extension = filename != null && filename.lastIndexOf('.') > 0 ? filename.substring(filename.lastIndexOf('.')) : null;
+        Path path = runContext.workingDir().createTempFile(extension);
 
-        for (int i = 0; i < count; i++) {
-            BodyPart bodyPart = multipart.getBodyPart(i);
+        try (InputStream inputStream = bodyPart.getInputStream()) {
+            Files.copy(inputStream, path, StandardCopyOption.REPLACE_EXISTING);
+        }
 
-            if (Part.ATTACHMENT.equalsIgnoreCase(bodyPart.getDisposition()) ||
-                    (bodyPart.getFileName() != null && !bodyPart.getFileName().isEmpty())) {
+        return putFile(runContext, path);
+    }
 
-                AttachmentInfo attachment = AttachmentInfo.builder()
-                        .filename(bodyPart.getFileName())
-                        .contentType(bodyPart.getContentType())
-                        .size(bodyPart.getSize())
-                        .build();
+    private static URI putFile(RunContext runContext, Path path) throws IOException {
+        try {
+            return runContext.storage().putFile(path.toFile());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
 
-                attachments.add(attachment);
-            } else if (bodyPart.isMimeType("multipart/*")) {
-                extractAttachmentsFromMultipart((MimeMultipart) bodyPart.getContent(), attachments);
+    private static boolean isAttachment(BodyPart bodyPart) throws MessagingException {
+        return Part.ATTACHMENT.equalsIgnoreCase(bodyPart.getDisposition()) ||
+                (bodyPart.getFileName() != null && !bodyPart.getFileName().isEmpty());
+    }
+
+    public static List<EmailData> fetchNewEmails(RunContext runContext, MailConfiguration config, ZonedDateTime lastCheckTime) throws MessagingException, IOException {
+        try (MailStoreCache.Lease lease = MailStoreCache.acquire(runContext, config)) {
+            try {
+                return processMessages(lease.getStore(), config, lastCheckTime, runContext);
+            } catch (MessagingException e) {
+                lease.invalidate();
+                throw e;
             }
         }
     }
 
-    public static List<EmailData> fetchNewEmails(RunContext runContext, String protocol, String host, Integer port,
-                                                 String username, String password, String folder, Boolean ssl, Boolean trustAllCertificates,
-                                                 ZonedDateTime lastCheckTime) throws MessagingException, IOException {
+    /**
+     * Fetch the IMAP messages added since the checkpoint, in a single UID range request.
+     * <p>
+     * Without a checkpoint for this mailbox, or when the server changed the UIDVALIDITY of the folder, the messages
+     * received after {@code lastCheckTime} are returned and the checkpoint starts from the latest message.
+     */
+    public static UidFetchResult fetchNewEmailsByUid(RunContext runContext, MailConfiguration config,
+                                                     UidCheckpoint checkpoint, ZonedDateTime lastCheckTime) throws MessagingException, IOException {
+        try (MailStoreCache.Lease lease = MailStoreCache.acquire(runContext, config)) {
+            try {
+                return processMessagesByUid(lease.folder(config.folder), config, checkpoint, lastCheckTime, runContext);
+            } catch (MessagingException e) {
+                lease.invalidate();
+                throw e;
+            }
+        }
+    }
 
-        Properties props = setupMailProperties(protocol, host, port, ssl, trustAllCertificates, runContext);
-        String protocolName = getProtocolName(protocol, ssl);
-        Session session = Session.getInstance(props, null);
-        Store store = session.getStore(protocolName);
+    /**
+     * @param mailFolder an open folder, left open to be reused by the next poll
+     */
+    private static UidFetchResult processMessagesByUid(Folder mailFolder, MailConfiguration config, UidCheckpoint checkpoint,
+                                                       ZonedDateTime lastCheckTime, RunContext runContext) throws MessagingException, IOException {
+        String mailbox = mailbox(config);
+        UIDFolder uidFolder = (UIDFolder) mailFolder;
+        long uidValidity = uidFolder.getUIDValidity();
+
+        boolean incremental = checkpoint != null && checkpoint.mailbox().equals(mailbox) && checkpoint.uidValidity() == uidValidity;
+        long lastUid;
+        long rangeLastUid = 0;
+        Message[] messages;
+
+        if (incremental) {
+            lastUid = checkpoint.lastUid();
+            messages = uidFolder.getMessagesByUID(lastUid + 1, UIDFolder.MAXUID);
+
+            if (config.searchTerm != null && messages.length > 0) {
+                // the checkpoint also moves past the new messages not matching the filter
+                rangeLastUid = uidFolder.getUID(messages[messages.length - 1]);
+                // SEARCH restricted to the new messages, only the matching ones are fetched below
+                messages = mailFolder.search(config.searchTerm, messages);
+            }
+        } else {
+            if (checkpoint != null && checkpoint.mailbox().equals(mailbox)) {
+                runContext.logger().warn("UIDVALIDITY of folder '{}' changed from {} to {}, falling back to the received date",
+                    config.folder, checkpoint.uidValidity(), uidValidity);
+            }
 
-        try {
-            connectToStore(store, host, port, username, password, runContext);
-            return processMessages(store, folder, lastCheckTime, runContext);
-        } finally {
-            if (store.isConnected()) {
-                try {
-                    store.close();
-                } catch (MessagingException e) {
-                    runContext.logger().warn("Failed to close mail store", e);
+            // SEARCH SINCE has a day granularity, the exact date is checked below
+            lastUid = 0;
+            SearchTerm receivedTerm = new ReceivedDateTerm(ComparisonTerm.GE, Date.from(lastCheckTime.toInstant()));
+            messages = mailFolder.search(config.searchTerm != null ? new AndTerm(receivedTerm, config.searchTerm) : receivedTerm);
+        }
+
+        FetchProfile fetchProfile = fetchProfile();
+        fetchProfile.add(UIDFolder.FetchProfileItem.UID);
+        mailFolder.fetch(messages, fetchProfile);
+
+        List<EmailData> newEmails = new ArrayList<>();
+        long newLastUid = incremental ? Math.max(lastUid, rangeLastUid) : latestUid(mailFolder, uidFolder);
+
+        for (Message message : messages) {
+            long uid = uidFolder.getUID(message);
+
+            // a "n:*" range always contains the last message, even when its UID is lower than n
+            if (uid <= lastUid) {
+                continue;
+            }
+
+            newLastUid = Math.max(newLastUid, uid);
+
+            if (message instanceof MimeMessage mimeMessage) {
+                if (!incremental && !isReceivedAfter(message, lastCheckTime)) {
+                    continue;
                 }
+
+                EmailData emailData = parseEmailData(runContext, mimeMessage, config);
+                newEmails.add(emailData);
+                logNewEmail(emailData, runContext);
             }
         }
+
+        runContext.logger().info("Found {} new emails in folder '{}' up to UID {}", newEmails.size(), config.folder, newLastUid);
+
+        return new UidFetchResult(newEmails, new UidCheckpoint(mailbox, uidValidity, newLastUid));
     }
 
-    private static List<EmailData> processMessages(Store store, String folder, ZonedDateTime lastCheckTime,
-            RunContext runContext) throws MessagingException, IOException {
-        List<EmailData> newEmails = new ArrayList<>();
-        Folder mailFolder = store.getFolder(folder);
-        try{
+    /**
+     * Fetch the POP3 messages whose UIDL was not seen by the previous poll, only their headers being downloaded with
+     * {@code TOP} when neither the body nor the attachments are needed.
+     * <p>
+     * Without a checkpoint for this mailbox, the last 10 messages received after {@code lastCheckTime} are returned.
+     * Servers not supporting {@code UIDL} are polled by received date only.
+     */
+    public static UidlFetchResult fetchNewEmailsByUidl(RunContext runContext, MailConfiguration config,
+                                                       UidlCheckpoint checkpoint, ZonedDateTime lastCheckTime) throws MessagingException, IOException {
+        try (MailStoreCache.Lease lease = MailStoreCache.acquire(runContext, config)) {
+            try {
+                return processMessagesByUidl(lease.getStore(), config, checkpoint, lastCheckTime, runContext);
+            } catch (MessagingException e) {
+                lease.invalidate();
+                throw e;
+            }
+        }
+    }
+
+    private static UidlFetchResult processMessagesByUidl(Store store, MailConfiguration config, UidlCheckpoint checkpoint,
+                                                         ZonedDateTime lastCheckTime, RunContext runContext) throws MessagingException, IOException {
+        String mailbox = mailbox(config);
+        // a POP3 folder only lists the messages present when it was opened, so it is opened on each poll
+        Folder mailFolder = store.getFolder(config.folder);
+
+        try {
             mailFolder.open(Folder.READ_ONLY);
 
             int messageCount = mailFolder.getMessageCount();
-            if (messageCount == 0) {
-                runContext.logger().info("No messages found in folder: {}", folder);
-                return Collections.emptyList();
+            Message[] window = mailFolder.getMessages(Math.max(1, messageCount - MAX_SEEN_UIDLS + 1), messageCount);
+
+            // a single UIDL command for all the messages
+            FetchProfile uidProfile = new FetchProfile();
+            uidProfile.add(UIDFolder.FetchProfileItem.UID);
+            mailFolder.fetch(window, uidProfile);
+
+            List<String> uidls = new ArrayList<>(window.length);
+            for (Message message : window) {
+                String uidl = ((POP3Folder) mailFolder).getUID(message);
+                if (uidl == null) {
+                    runContext.logger().warn("The POP3 server {} doesn't support the UIDL command, falling back to the received date", config.host);
+                    return new UidlFetchResult(processMessages(mailFolder, config, lastCheckTime, runContext), checkpoint);
+                }
+
+                uidls.add(uidl);
             }
 
-            runContext.logger().info("Checking for emails newer than: {}", lastCheckTime);
+            boolean incremental = checkpoint != null && checkpoint.mailbox().equals(mailbox) && checkpoint.uidls() != null;
+            Set<String> seen = incremental ? new HashSet<>(checkpoint.uidls()) : Set.of();
 
-            int messagesToCheck = Math.min(messageCount, 10);
-            Message[] messages = mailFolder.getMessages(messageCount - messagesToCheck + 1, messageCount);
+            List<Message> unseen = new ArrayList<>();
+            for (int i = incremental ? 0 : Math.max(0, window.length - 10); i < window.length; i++) {
+                if (!seen.contains(uidls.get(i))) {
+                    unseen.add(window[i]);
+                }
+            }
 
-            runContext.logger().info("Checking {} messages out of {} total", messagesToCheck, messageCount);
+            Message[] messages = unseen.toArray(Message[]::new);
+            // headers are fetched with TOP, the content is only downloaded if needed by the parsing
+            mailFolder.fetch(messages, fetchProfile());
+
+            boolean withContent = config.includeBody() || config.storeAttachments();
+            List<EmailData> newEmails = new ArrayList<>();
 
             for (Message message : messages) {
                 if (message instanceof MimeMessage mimeMessage) {
-                    Date receivedDate = message.getReceivedDate() != null ? message.getReceivedDate()
-                            : message.getSentDate();
-
-                    if (receivedDate != null) {
-                        ZonedDateTime messageDate = ZonedDateTime.ofInstant(receivedDate.toInstant(),
-                                lastCheckTime.getZone());
-
-                        runContext.logger().debug("Message date: {}, Last check: {}, Is newer: {}",
-                                messageDate, lastCheckTime, messageDate.isAfter(lastCheckTime));
-
-                        if (messageDate.isAfter(lastCheckTime)) {
-                            EmailData emailData = parseEmailData(mimeMessage);
-                            if (emailData != null) {
-                                newEmails.add(emailData);
-                                runContext.logger().info("New email - Subject: '{}', From: '{}', Body: '{}'",
-                                        emailData.getSubject(), emailData.getFrom(),
-                                        emailData.getBody().length() > 100 ? emailData.getBody().substring(0, 100) + "..."
-                                                : emailData.getBody());
-                            }
-                        }
-                    } else {
-                        runContext.logger().debug("Message has no received date or sent date.");
+                    if (!incremental && !isReceivedAfter(message, lastCheckTime)) {
+                        continue;
                     }
+
+                    // POP3 has no SEARCH command, the filter is matched on the fetched headers
+                    if (config.searchTerm != null && !message.match(config.searchTerm)) {
+                        continue;
+                    }
+
+                    EmailData emailData = parseEmailData(runContext, mimeMessage, config, withContent);
+                    newEmails.add(emailData);
+                    logNewEmail(emailData, runContext);
+                }
+            }
+
+            runContext.logger().info("Found {} new emails out of {} unseen messages", newEmails.size(), messages.length);
+
+            return new UidlFetchResult(newEmails, new UidlCheckpoint(mailbox, uidls));
+        } finally {
+            if (mailFolder.isOpen()) {
+                try {
+                    mailFolder.close(false);
+                } catch (MessagingException e) {
+                    runContext.logger().warn("Failed to close mail folder", e);
                 }
             }
-    } finally {
+        }
+    }
+
+    /**
+     * The identifier of a folder of a mailbox, as stored in the checkpoints.
+     */
+    public static String mailbox(MailConfiguration config) {
+        return config.username + "@" + config.host + ":" + config.port + "/" + config.folder;
+    }
+
+    private static long latestUid(Folder folder, UIDFolder uidFolder) throws MessagingException {
+        // UIDNEXT is only refreshed when the folder is selected, which a reused folder is not, while the message
+        // count is refreshed by a NOOP
+        int messageCount = folder.getMessageCount();
+        return messageCount > 0 ? uidFolder.getUID(folder.getMessage(messageCount)) : 0;
+    }
+
+    private static boolean isReceivedAfter(Message message, ZonedDateTime lastCheckTime) throws MessagingException {
+        Date receivedDate = message.getReceivedDate() != null ? message.getReceivedDate() : message.getSentDate();
+
+        return receivedDate != null && receivedDate.toInstant().isAfter(lastCheckTime.toInstant());
+    }
+
+    private static void logNewEmail(EmailData emailData, RunContext runContext) {
+        String body = emailData.getBody() != null && emailData.getBody().length() > 100 ?
+            emailData.getBody().substring(0, 100) + "..." :
+            emailData.getBody();
+
+        runContext.logger().info("New email - Subject: '{}', From: '{}', Body: '{}'", emailData.getSubject(), emailData.getFrom(), body);
+    }
+
+    /**
+     * Read the state persisted by a mail trigger between two evaluations.
+     */
+    public static <T> Optional<T> readState(RunContext runContext, String triggerId, Class<T> cls) throws Exception {
+        try (InputStream inputStream = runContext.stateStore().getState(STATE_NAME, triggerId, null)) {
+            return Optional.of(JacksonMapper.ofJson().readValue(inputStream, cls));
+        } catch (FileNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static void writeState(RunContext runContext, String triggerId, Object state) throws IOException {
+        runContext.stateStore().putState(STATE_NAME, triggerId, null, JacksonMapper.ofJson().writeValueAsBytes(state));
+    }
+
+    private static List<EmailData> processMessages(Store store, MailConfiguration config, ZonedDateTime lastCheckTime,
+            RunContext runContext) throws MessagingException, IOException {
+        Folder mailFolder = store.getFolder(config.folder);
+        try {
+            mailFolder.open(Folder.READ_ONLY);
+
+            return processMessages(mailFolder, config, lastCheckTime, runContext);
+        } finally {
             if (mailFolder.isOpen()) {
                 try {
                     mailFolder.close(false);
@@ -321,8 +629,55 @@ public class MailService {
                 }
             }
         }
+    }
+
+    /**
+     * @param mailFolder an open folder
+     */
+    private static List<EmailData> processMessages(Folder mailFolder, MailConfiguration config, ZonedDateTime lastCheckTime,
+            RunContext runContext) throws MessagingException, IOException {
+        String folder = config.folder;
+        List<EmailData> newEmails = new ArrayList<>();
+
+        int messageCount = mailFolder.getMessageCount();
+        if (messageCount == 0) {
+            runContext.logger().info("No messages found in folder: {}", folder);
+            return Collections.emptyList();
+        }
+
+        runContext.logger().info("Checking for emails newer than: {}", lastCheckTime);
+
+        int messagesToCheck = Math.min(messageCount, 10);
+        Message[] messages = mailFolder.getMessages(messageCount - messagesToCheck + 1, messageCount);
+
+        runContext.logger().info("Checking {} messages out of {} total", messagesToCheck, messageCount);
+
+        mailFolder.fetch(messages, fetchProfile());
+
+        for (Message message : messages) {
+            if (message instanceof MimeMessage mimeMessage) {
+                Date receivedDate = message.getReceivedDate() != null ? message.getReceivedDate()
+                        : message.getSentDate();
+
+                if (receivedDate != null) {
+                    ZonedDateTime messageDate = ZonedDateTime.ofInstant(receivedDate.toInstant(),
+                            lastCheckTime.getZone());
+
+                    runContext.logger().debug("Message date: {}, Last check: {}, Is newer: {}",
+                            messageDate, lastCheckTime, messageDate.isAfter(lastCheckTime));
+
+                    if (messageDate.isAfter(lastCheckTime) && (config.searchTerm == null || message.match(config.searchTerm))) {
+                        EmailData emailData = parseEmailData(runContext, mimeMessage, config);
+                        newEmails.add(emailData);
+                        logNewEmail(emailData, runContext);
+                    }
+                } else {
+                    runContext.logger().debug("Message has no received date or sent date.");
+                }
+            }
+        }
 
         runContext.logger().info("Found {} new emails", newEmails.size());
         return newEmails;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,243 @@
+package io.kestra.plugin.notifications.mail;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.runners.RunContext;
+import jakarta.mail.Folder;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Store;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker-wide cache of connected IMAP {@link Store}, shared by the polls of the mail triggers.
+ * <p>
+ * Only IMAP stores are cached: a POP3 server locks the maildrop for the whole session and only applies deletions and
+ * lists new messages on a new session, so a POP3 store is closed when its lease is closed.
+ * <p>
+ * Stores are keyed by the mail server and credentials. A poll leases a connected store, and the IMAP folders it opened,
+ * and gives them back once done, so the next poll of the mailbox skips the TCP connection, the TLS negotiation, the
+ * login and the folder selection. A lease is exclusive: concurrent polls of the same mailbox each get their own store.
+ * <p>
+ * An idle store is checked with a {@code NOOP} before being leased again, and is closed once it has stayed idle longer
+ * than {@link #IDLE_TIMEOUT}.
+ */
+public class MailStoreCache {
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(30);
+    // an open folder keeps every message it returned in memory, so it is reselected from time to time
+    private static final Duration FOLDER_MAX_AGE = Duration.ofMinutes(15);
+
+    private static final Map<Key, Deque<Entry>> IDLE = new HashMap<>();
+
+    private static ScheduledExecutorService evictor;
+
+    /**
+     * Lease a connected store for the mailbox, reusing an idle one if it is still alive.
+     * The lease must be closed once the poll is done, or {@link Lease#invalidate() invalidated} if the connection failed.
+     */
+    public static Lease acquire(RunContext runContext, MailService.MailConfiguration config) throws MessagingException {
+        Key key = new Key(config.protocol, config.host, config.port, config.username, config.password, config.ssl, config.trustAllCertificates);
+
+        Entry entry;
+        synchronized (IDLE) {
+            evictIdle();
+
+            Deque<Entry> entries = IDLE.get(key);
+            entry = entries != null ? entries.pollFirst() : null;
+        }
+
+        if (entry != null && !entry.isAlive()) {
+            runContext.logger().debug("Discarding the stale mail store of {}", key);
+            entry.close(runContext.logger());
+            entry = null;
+        }
+
+        if (entry == null) {
+            Properties props = MailService.setupMailProperties(config.protocol, config.host, config.port, config.ssl, config.trustAllCertificates, runContext);
+            Store store = Session.getInstance(props, null).getStore(MailService.getProtocolName(config.protocol, config.ssl));
+            MailService.connectToStore(store, config.host, config.port, config.username, config.password, runContext);
+
+            entry = new Entry(store);
+            runContext.metric(Counter.of("mail.store.created", 1, "host", config.host));
+        } else {
+            runContext.logger().debug("Reusing the mail store of {}", key);
+            runContext.metric(Counter.of("mail.store.reused", 1, "host", config.host));
+        }
+
+        return new Lease(key, entry, runContext.logger());
+    }
+
+    private static void release(Key key, Entry entry) {
+        synchronized (IDLE) {
+            entry.lastUsed = System.nanoTime();
+            IDLE.computeIfAbsent(key, k -> new ArrayDeque<>()).addFirst(entry);
+            scheduleEviction();
+        }
+    }
+
+    private static void evictIdle() {
+        long now = System.nanoTime();
+
+        Iterator<Deque<Entry>> iterator = IDLE.values().iterator();
+        while (iterator.hasNext()) {
+            Deque<Entry> entries = iterator.next();
+
+            entries.removeIf(entry -> {
+                if (now - entry.lastUsed > IDLE_TIMEOUT.toNanos()) {
+                    entry.close(null);
+                    return true;
+                }
+
+                return false;
+            });
+
+            if (entries.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static void scheduleEviction() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "notifications-mail-store-cache-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            evictor.scheduleWithFixedDelay(
+                () -> {
+                    synchronized (IDLE) {
+                        evictIdle();
+                    }
+                },
+                EVICTION_INTERVAL.toMillis(),
+                EVICTION_INTERVAL.toMillis(),
+                TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    public static class Lease implements AutoCloseable {
+        private final Key key;
+        private final Entry entry;
+        private final Logger logger;
+        private boolean valid = true;
+        private boolean released = false;
+
+        private Lease(Key key, Entry entry, Logger logger) {
+            this.key = key;
+            this.entry = entry;
+            this.logger = logger;
+        }
+
+        public Store getStore() {
+            return entry.store;
+        }
+
+        /**
+         * An IMAP folder opened read-only, kept open for the next leases of this store.
+         * POP3 folders only list the messages present when they were opened, so they must be opened and closed by
+         * the caller on each poll.
+         */
+        public Folder folder(String name) throws MessagingException {
+            OpenFolder openFolder = entry.folders.get(name);
+
+            if (openFolder != null && openFolder.folder.isOpen() && System.nanoTime() - openFolder.openedAt < FOLDER_MAX_AGE.toNanos()) {
+                return openFolder.folder;
+            }
+
+            if (openFolder != null && openFolder.folder.isOpen()) {
+                openFolder.folder.close(false);
+            }
+
+            Folder folder = entry.store.getFolder(name);
+            folder.open(Folder.READ_ONLY);
+            entry.folders.put(name, new OpenFolder(folder, System.nanoTime()));
+
+            return folder;
+        }
+
+        /**
+         * Close the store instead of giving it back to the cache, to be called when the connection failed.
+         */
+        public void invalidate() {
+            this.valid = false;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+
+            released = true;
+
+            if (valid && key.isCacheable()) {
+                release(key, entry);
+            } else {
+                entry.close(logger);
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Store store;
+        private final Map<String, OpenFolder> folders = new HashMap<>();
+        private long lastUsed = System.nanoTime();
+
+        private Entry(Store store) {
+            this.store = store;
+        }
+
+        private boolean isAlive() {
+            // the IMAP store sends a NOOP to check that the connection is still open
+            return store.isConnected();
+        }
+
+        private void close(Logger logger) {
+            try {
+                for (OpenFolder openFolder : folders.values()) {
+                    if (openFolder.folder.isOpen()) {
+                        openFolder.folder.close(false);
+                    }
+                }
+
+                store.close();
+            } catch (MessagingException e) {
+                if (logger != null) {
+                    logger.warn("Failed to close mail store", e);
+                }
+            }
+        }
+    }
+
+    private record OpenFolder(Folder folder, long openedAt) {
+    }
+
+    private record Key(
+        String protocol,
+        String host,
+        Integer port,
+        String username,
+        String password,
+        Boolean ssl,
+        Boolean trustAllCertificates
+    ) {
+        private boolean isCacheable() {
+            return MailService.Protocol.IMAP.name().equals(protocol);
+        }
+
+        @Override
+        public String toString() {
+            // never log the password
+            return protocol + "://" + username + "@" + host + ":" + port;
+        }
+    }
+}
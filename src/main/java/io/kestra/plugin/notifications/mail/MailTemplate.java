@@ -4,24 +4,23 @@ package io.kestra.plugin.notifications.mail;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.notifications.TemplateInterface;
+import io.kestra.plugin.notifications.services.TemplateRegistry;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
-import org.apache.commons.io.IOUtils;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
-import java.util.Objects;
 
 @SuperBuilder
 @ToString
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class MailTemplate extends MailSend {
+public abstract class MailTemplate extends MailSend implements TemplateInterface {
     @Schema(
         title = "Template to use",
         hidden = true
@@ -46,21 +45,17 @@ public abstract class MailTemplate extends MailSend {
 
         final var renderedTemplateUri = runContext.render(this.templateUri).as(String.class);
         if (renderedTemplateUri.isPresent()) {
-            htmlTextTemplate = IOUtils.toString(
-                Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(renderedTemplateUri.get())),
-                StandardCharsets.UTF_8
-            );
+            htmlTextTemplate = TemplateRegistry.get(this.getClass().getClassLoader(), renderedTemplateUri.get());
         }
 
         if (runContext.render(this.textTemplateUri).as(String.class).isPresent()) {
-            plainTextTemplate = IOUtils.toString(
-                Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(runContext.render(this.textTemplateUri).as(String.class).get())),
-                StandardCharsets.UTF_8
-            );
+            plainTextTemplate = TemplateRegistry.get(this.getClass().getClassLoader(), runContext.render(this.textTemplateUri).as(String.class).get());
         }
 
-        this.htmlTextContent = Property.ofValue(runContext.render(htmlTextTemplate, runContext.render(templateRenderMap).asMap(String.class, Object.class)));
-        this.plainTextContent = Property.ofValue(runContext.render(plainTextTemplate, runContext.render(templateRenderMap).asMap(String.class, Object.class)));
+        Map<String, Object> templateVars = this.templateVariables(runContext);
+
+        this.htmlTextContent = Property.ofValue(runContext.render(htmlTextTemplate, templateVars));
+        this.plainTextContent = Property.ofValue(runContext.render(plainTextTemplate, templateVars));
 
         return super.run(runContext);
     }
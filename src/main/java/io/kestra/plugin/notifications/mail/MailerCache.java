@@ -0,0 +1,202 @@
+package io.kestra.plugin.notifications.mail;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Gauge;
+import io.kestra.core.runners.RunContext;
+import org.simplejavamail.api.mailer.Mailer;
+import org.simplejavamail.api.mailer.config.TransportStrategy;
+import org.simplejavamail.mailer.MailerBuilder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker-wide cache of simple-java-mail {@link Mailer}, shared by every {@link MailSend} and {@link MailSendBatch}.
+ * <p>
+ * Mailers are keyed by the SMTP server, credentials and connection settings. Each one keeps its own SMTP connection
+ * pool, so emails sent to the same relay reuse already authenticated connections instead of paying a TCP connection,
+ * a TLS negotiation and an authentication per email.
+ * <p>
+ * A mailer and its connections are shut down once it has no lease and has stayed idle longer than {@link #IDLE_TIMEOUT}.
+ */
+public class MailerCache {
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(30);
+
+    private static final Map<Key, Entry> MAILERS = new HashMap<>();
+
+    private static ScheduledExecutorService evictor;
+
+    /**
+     * Lease a mailer matching the given key, creating it if needed.
+     * The lease must be closed once the email is sent, the mailer itself must never be closed by the caller.
+     */
+    public static Lease acquire(RunContext runContext, Key key) {
+        synchronized (MAILERS) {
+            evictIdle();
+
+            Entry entry = MAILERS.get(key);
+            if (entry == null) {
+                entry = new Entry(key.buildMailer());
+                MAILERS.put(key, entry);
+                runContext.logger().debug("Created a new pooled mailer for {}", key);
+                runContext.metric(Counter.of("smtp.mailer.created", 1, "host", key.host()));
+                scheduleEviction();
+            } else {
+                runContext.metric(Counter.of("smtp.mailer.reused", 1, "host", key.host()));
+            }
+
+            entry.leases++;
+            reportMailers(runContext, key.host());
+
+            return new Lease(runContext, key.host(), entry);
+        }
+    }
+
+    private static void release(RunContext runContext, String host, Entry entry) {
+        synchronized (MAILERS) {
+            entry.leases--;
+            entry.lastUsed = System.nanoTime();
+            reportMailers(runContext, host);
+        }
+    }
+
+    /**
+     * Report the mailers of the host that are leased and the ones waiting for a lease or their eviction, as gauges
+     * since they are a state of the cache, not a number of events.
+     */
+    private static void reportMailers(RunContext runContext, String host) {
+        double active = 0;
+        double idle = 0;
+
+        for (Map.Entry<Key, Entry> mailer : MAILERS.entrySet()) {
+            if (mailer.getKey().host().equals(host)) {
+                if (mailer.getValue().leases > 0) {
+                    active++;
+                } else {
+                    idle++;
+                }
+            }
+        }
+
+        runContext.metric(Gauge.of("smtp.mailer.active", active, "host", host));
+        runContext.metric(Gauge.of("smtp.mailer.idle", idle, "host", host));
+    }
+
+    private static void evictIdle() {
+        long now = System.nanoTime();
+
+        Iterator<Entry> iterator = MAILERS.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+
+            if (entry.leases == 0 && now - entry.lastUsed > IDLE_TIMEOUT.toNanos()) {
+                iterator.remove();
+                entry.mailer.shutdownConnectionPool();
+            }
+        }
+    }
+
+    private static void scheduleEviction() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "notifications-mailer-cache-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            evictor.scheduleWithFixedDelay(
+                () -> {
+                    synchronized (MAILERS) {
+                        evictIdle();
+                    }
+                },
+                EVICTION_INTERVAL.toMillis(),
+                EVICTION_INTERVAL.toMillis(),
+                TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    public static class Lease implements AutoCloseable {
+        private final RunContext runContext;
+        private final String host;
+        private final Entry entry;
+        private boolean released = false;
+
+        private Lease(RunContext runContext, String host, Entry entry) {
+            this.runContext = runContext;
+            this.host = host;
+            this.entry = entry;
+        }
+
+        public Mailer getMailer() {
+            return entry.mailer;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(runContext, host, entry);
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Mailer mailer;
+        private int leases = 0;
+        private long lastUsed = System.nanoTime();
+
+        private Entry(Mailer mailer) {
+            this.mailer = mailer;
+        }
+    }
+
+    public record Key(
+        String host,
+        Integer port,
+        String username,
+        String password,
+        TransportStrategy transportStrategy,
+        Integer sessionTimeout,
+        Boolean verifyServerIdentity,
+        List<String> trustedHosts,
+        Integer connectionPoolCoreSize,
+        Integer connectionPoolMaxSize,
+        Duration connectionPoolClaimTimeout,
+        Duration connectionPoolExpireAfter
+    ) {
+        private Mailer buildMailer() {
+            var mailerBuilder = MailerBuilder
+                .withSMTPServer(host, port, username, password)
+                .withTransportStrategy(transportStrategy)
+                .withSessionTimeout(sessionTimeout)
+                .verifyingServerIdentity(verifyServerIdentity)
+                .withConnectionPoolCoreSize(connectionPoolCoreSize)
+                .withConnectionPoolMaxSize(connectionPoolMaxSize)
+                .withConnectionPoolClaimTimeoutMillis((int) connectionPoolClaimTimeout.toMillis())
+                .withConnectionPoolExpireAfterMillis((int) connectionPoolExpireAfter.toMillis());
+
+            if (!trustedHosts.isEmpty()) {
+                mailerBuilder = mailerBuilder
+                    .trustingAllHosts(false)
+                    .trustingSSLHosts(trustedHosts.toArray(new String[0]));
+            }
+
+            return mailerBuilder.buildMailer();
+        }
+
+        @Override
+        public String toString() {
+            // never log the password
+            return transportStrategy + "://" + (username != null ? username + "@" : "") + host + ":" + port;
+        }
+    }
+}
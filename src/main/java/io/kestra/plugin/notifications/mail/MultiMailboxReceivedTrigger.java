@@ -0,0 +1,240 @@
+package io.kestra.plugin.notifications.mail;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.*;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Deprecated
+@Schema(
+    title = "Trigger on new email messages in several folders and mailboxes.",
+    description = """
+        Monitor several IMAP folders, of one or more mailboxes, and create one execution for all the new emails found.
+        Each email is tagged with the `mailbox` and `folder` it was found in.
+
+        The folders are scanned concurrently, `concurrency` bounding the number of folders scanned at the same time.
+
+        This task is deprecated and has been replaced by `plugin-email (io.kestra.plugin.email)`.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Monitor the inbox and the support folder of two shared mailboxes",
+            full = true,
+            code = """
+                id: shared_mailboxes_monitor
+                namespace: company.team
+
+                tasks:
+                  - id: process_emails
+                    type: io.kestra.plugin.core.flow.ForEach
+                    values: "{{ trigger.emails }}"
+                    tasks:
+                      - id: log
+                        type: io.kestra.plugin.core.log.Log
+                        message: "{{ json(taskrun.value).mailbox }}/{{ json(taskrun.value).folder }}: {{ json(taskrun.value).subject }}"
+
+                triggers:
+                  - id: shared_mailboxes_trigger
+                    type: io.kestra.plugin.notifications.mail.MultiMailboxReceivedTrigger
+                    host: imap.gmail.com
+                    port: 993
+                    username: "{{ secret('SALES_USERNAME') }}"
+                    password: "{{ secret('SALES_PASSWORD') }}"
+                    folders:
+                      - INBOX
+                      - Support
+                    accounts:
+                      - username: "{{ secret('BILLING_USERNAME') }}"
+                        password: "{{ secret('BILLING_PASSWORD') }}"
+                    interval: PT1M
+                """
+        )
+    }
+)
+public class MultiMailboxReceivedTrigger extends AbstractMailTrigger
+        implements PollingTriggerInterface, TriggerOutput<MailService.Output> {
+
+    @Schema(title = "Mail folders", description = "The folders to monitor in each mailbox, `folder` is used if left empty")
+    protected Property<List<String>> folders;
+
+    @Schema(title = "Additional mailboxes", description = "Mailboxes monitored along the one of `username`, on the same server unless `host` and `port` are set")
+    @PluginProperty(dynamic = true)
+    protected List<Account> accounts;
+
+    @Schema(
+        title = "Maximum number of folders scanned at the same time",
+        description = "It also bounds the number of IMAP connections in use at the same time. Between polls, the connections " +
+            "stay open in a worker-wide cache along with the folders they selected, up to one connection per concurrent scan of each mailbox."
+    )
+    @Builder.Default
+    protected final Property<Integer> concurrency = Property.ofValue(4);
+
+    @Override
+    public Optional<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) throws Exception {
+        RunContext runContext = conditionContext.getRunContext();
+        MailService.MailConfiguration mailConfig = renderMailConfiguration(runContext);
+
+        if (!MailService.Protocol.IMAP.name().equals(mailConfig.protocol)) {
+            throw new IllegalArgumentException("Only the IMAP protocol supports several folders");
+        }
+
+        List<MailService.MailConfiguration> mailboxes = this.mailboxes(runContext, mailConfig);
+        ZonedDateTime lastCheckTime = context.getNextExecutionDate() == null ?
+            ZonedDateTime.now().minus(getInterval()) :
+            context.getNextExecutionDate().minus(mailConfig.interval);
+
+        Map<String, MailService.UidCheckpoint> checkpoints = new HashMap<>(this.readCheckpoints(runContext));
+        Semaphore permits = new Semaphore(Math.max(1, runContext.render(this.concurrency).as(Integer.class).orElse(4)));
+
+        List<MailService.UidFetchResult> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<MailService.UidFetchResult>> futures = mailboxes.stream()
+                .map(mailbox -> executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return MailService.fetchNewEmailsByUid(runContext, mailbox, checkpoints.get(MailService.mailbox(mailbox)), lastCheckTime);
+                    } finally {
+                        permits.release();
+                    }
+                }))
+                .toList();
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    // a failing mailbox must not prevent the others from triggering, it is retried on the next poll
+                    runContext.logger().error("Error checking for new emails in {}", MailService.mailbox(mailboxes.get(i)), e.getCause());
+                }
+            }
+        }
+
+        List<MailService.EmailData> newEmails = new ArrayList<>();
+        for (MailService.UidFetchResult result : results) {
+            newEmails.addAll(result.emails());
+            checkpoints.put(result.checkpoint().mailbox(), result.checkpoint());
+        }
+
+        MailService.writeState(runContext, this.getId(), checkpoints);
+
+        if (newEmails.isEmpty()) {
+            return Optional.empty();
+        }
+
+        MailService.EmailData latest = newEmails.stream()
+            .max(Comparator.comparing(MailService.EmailData::getDate))
+            .orElse(newEmails.getFirst());
+
+        MailService.Output output = MailService.Output.builder()
+            .latestEmail(latest)
+            .total(newEmails.size())
+            .emails(newEmails)
+            .build();
+
+        return Optional.of(TriggerService.generateExecution(this, conditionContext, context, output));
+    }
+
+    private List<MailService.MailConfiguration> mailboxes(RunContext runContext, MailService.MailConfiguration mailConfig) throws Exception {
+        List<String> rFolders = runContext.render(this.folders).asList(String.class);
+        if (rFolders.isEmpty()) {
+            rFolders = List.of(mailConfig.folder);
+        }
+
+        List<MailService.MailConfiguration> accountConfigs = new ArrayList<>();
+        accountConfigs.add(mailConfig);
+
+        for (Account account : this.accounts == null ? List.<Account>of() : this.accounts) {
+            accountConfigs.add(mailboxConfig(
+                mailConfig,
+                runContext.render(account.getHost()).as(String.class).orElse(mailConfig.host),
+                runContext.render(account.getPort()).as(Integer.class).orElse(mailConfig.port),
+                runContext.render(account.getUsername()).as(String.class).orElseThrow(),
+                runContext.render(account.getPassword()).as(String.class).orElseThrow(),
+                mailConfig.folder
+            ));
+        }
+
+        List<MailService.MailConfiguration> mailboxes = new ArrayList<>();
+        for (MailService.MailConfiguration accountConfig : accountConfigs) {
+            for (String folder : rFolders) {
+                mailboxes.add(mailboxConfig(accountConfig, accountConfig.host, accountConfig.port, accountConfig.username, accountConfig.password, folder));
+            }
+        }
+
+        return mailboxes;
+    }
+
+    private static MailService.MailConfiguration mailboxConfig(MailService.MailConfiguration config, String host, Integer port,
+                                                               String username, String password, String folder) {
+        return MailService.MailConfiguration.builder()
+            .protocol(config.protocol)
+            .host(host)
+            .port(port)
+            .username(username)
+            .password(password)
+            .folder(folder)
+            .ssl(config.ssl)
+            .trustAllCertificates(config.trustAllCertificates)
+            .interval(config.interval)
+            .includeBody(config.includeBody)
+            .storeAttachments(config.storeAttachments)
+            .maxInlineBodySize(config.maxInlineBodySize)
+            .searchTerm(config.searchTerm)
+            .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, MailService.UidCheckpoint> readCheckpoints(RunContext runContext) throws Exception {
+        Map<String, Object> state = MailService.readState(runContext, this.getId(), Map.class).orElse(Map.of());
+
+        Map<String, MailService.UidCheckpoint> checkpoints = new HashMap<>();
+        state.forEach((mailbox, checkpoint) -> checkpoints.put(
+            mailbox,
+            JacksonMapper.ofJson().convertValue(checkpoint, MailService.UidCheckpoint.class)
+        ));
+
+        return checkpoints;
+    }
+
+    @Getter
+    @Builder
+    public static class Account {
+        @Schema(title = "Mail server host", description = "The host of the trigger if left empty")
+        private Property<String> host;
+
+        @Schema(title = "Mail server port", description = "The port of the trigger if left empty")
+        private Property<Integer> port;
+
+        @Schema(title = "Username")
+        @NotNull
+        private Property<String> username;
+
+        @Schema(title = "Password")
+        @NotNull
+        private Property<String> password;
+    }
+}
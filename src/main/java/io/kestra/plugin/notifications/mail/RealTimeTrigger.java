@@ -4,28 +4,34 @@ import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.conditions.ConditionContext;
 import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
 import io.kestra.core.models.triggers.*;
 import io.kestra.core.runners.RunContext;
 import io.kestra.plugin.notifications.mail.MailService.EmailData;
 import io.kestra.plugin.notifications.mail.MailService.MailConfiguration;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.mail.*;
-import jakarta.mail.event.MessageCountEvent;
-import jakarta.mail.event.MessageCountListener;
 import jakarta.mail.internet.MimeMessage;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import org.eclipse.angus.mail.imap.IMAPFolder;
+import org.eclipse.angus.mail.imap.IMAPStore;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.ZonedDateTime;
-import java.util.List;
-import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -39,7 +45,7 @@ import java.util.concurrent.atomic.AtomicReference;
     title = "Trigger a flow when an email is received in real-time.",
     description = """
         Monitor a mailbox for new emails via IMAP or POP3 protocols and create one execution per email received.
-        For IMAP, uses the IDLE command for true real-time monitoring.
+        For IMAP, uses the IDLE command for true real-time monitoring, reconnecting automatically and replaying the emails received while disconnected.
         For POP3, uses polling.
         If you would like to process multiple emails in batch, use the MailReceivedTrigger instead.
 
@@ -96,6 +102,9 @@ import java.util.concurrent.atomic.AtomicReference;
 )
 public class RealTimeTrigger extends AbstractMailTrigger
     implements RealtimeTriggerInterface, TriggerOutput<MailService.EmailData> {
+    private static final Duration IDLE_REFRESH = Duration.ofMinutes(25);
+    private static final Duration RECONNECT_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_RECONNECT_BACKOFF = Duration.ofMinutes(1);
 
     @Builder.Default
     @Getter(AccessLevel.NONE)
@@ -115,21 +124,71 @@ public class RealTimeTrigger extends AbstractMailTrigger
 
     @Builder.Default
     @Getter(AccessLevel.NONE)
-    private final AtomicReference<ZonedDateTime> lastFetched = new AtomicReference<>();
+    private final AtomicReference<MailService.UidlCheckpoint> uidlCheckpoint = new AtomicReference<>();
+
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<MailService.UidCheckpoint> queued = new AtomicReference<>();
+
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<MailService.UidCheckpoint> checkpoint = new AtomicReference<>();
+
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean spilled = new AtomicBoolean(false);
+
+    @Schema(
+        title = "Maximum number of emails waiting to be parsed or emitted (IMAP only)",
+        description = "Bounds the memory used when many emails are received at once."
+    )
+    @Builder.Default
+    private final Property<Integer> bufferSize = Property.ofValue(100);
+
+    @Schema(
+        title = "What to do with new emails when the buffer is full (IMAP only)",
+        description = """
+            - `BLOCK`: stop reading from the server until the buffer has room, the notifications wait on the connection.
+            - `SPILL`: leave the new emails on the server and queue them again by UID once the buffer is drained."""
+    )
+    @Builder.Default
+    private final Property<OverflowPolicy> overflowPolicy = Property.ofValue(OverflowPolicy.BLOCK);
+
+    @Schema(
+        title = "Maximum number of emails parsed at the same time (IMAP only)"
+    )
+    @Builder.Default
+    private final Property<Integer> parsingConcurrency = Property.ofValue(4);
 
     @Override
     public Publisher<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) throws Exception {
         RunContext runContext = conditionContext.getRunContext();
         MailService.MailConfiguration mailConfig = renderMailConfiguration(runContext);
+        Backpressure backpressure = new Backpressure(
+            Math.max(1, runContext.render(this.bufferSize).as(Integer.class).orElse(100)),
+            runContext.render(this.overflowPolicy).as(OverflowPolicy.class).orElse(OverflowPolicy.BLOCK),
+            Math.max(1, runContext.render(this.parsingConcurrency).as(Integer.class).orElse(4))
+        );
 
         runContext.logger().info("Starting real-time email monitoring using {} protocol on {}:{}",
             mailConfig.protocol, mailConfig.host, mailConfig.port);
 
-        return createRealtimeEmailStream(runContext, mailConfig)
-            .map(emailData -> {
-                runContext.logger().info("Real-time trigger: New email from '{}' with subject '{}'",
-                    emailData.getFrom(), emailData.getSubject());
-                return TriggerService.generateRealtimeExecution(this, conditionContext, context, emailData);
+        return createRealtimeEmailStream(runContext, mailConfig, backpressure)
+            .concatMap(received -> {
+                Flux<Execution> execution = Mono.justOrEmpty(received.emailData())
+                    .map(emailData -> {
+                        runContext.logger().info("Real-time trigger: New email from '{}' with subject '{}'",
+                            emailData.getFrom(), emailData.getSubject());
+                        return TriggerService.generateRealtimeExecution(this, conditionContext, context, emailData);
+                    })
+                    .flux();
+
+                if (received.checkpoint() == null) {
+                    return execution;
+                }
+
+                // the checkpoint only moves once the execution is emitted, a restarted trigger replays the others
+                return execution.concatWith(Mono.fromRunnable(() -> this.commit(runContext, received.checkpoint())));
             })
             .onErrorContinue(
                 (throwable, o) -> runContext.logger().error("Error in real-time email stream", throwable))
@@ -139,18 +198,72 @@ public class RealTimeTrigger extends AbstractMailTrigger
             });
     }
 
-    private Flux<EmailData> createRealtimeEmailStream(RunContext runContext, MailConfiguration config) {
+    private Flux<Received> createRealtimeEmailStream(RunContext runContext, MailConfiguration config, Backpressure backpressure) {
         if ("IMAP".equals(config.protocol)) {
-            return createImapIdleStream(runContext, config);
+            return createImapIdleStream(runContext, config, backpressure);
         }
 
-        return createPop3PollingStream(runContext, config);
+        // the POP3 checkpoint is persisted by the polling itself
+        return createPop3PollingStream(runContext, config)
+            .map(emailData -> new Received(emailData, null));
     }
 
-    private Flux<EmailData> createImapIdleStream(RunContext runContext, MailConfiguration config) {
-        return Flux.create(sink -> {
+    /**
+     * The IDLE connection only discovers the UIDs of the new messages: they are fetched and parsed by a bounded parallel
+     * stage over other connections leased from the {@link MailStoreCache}, so that the IDLE connection is never held by
+     * a slow parsing. At most {@link Backpressure#bufferSize()} messages are queued or being parsed at a time.
+     * <p>
+     * Every message carries its checkpoint downstream, even the ones filtered out or failing to parse, so that the
+     * persisted checkpoint follows the emitted messages in UID order.
+     */
+    private Flux<Received> createImapIdleStream(RunContext runContext, MailConfiguration config, Backpressure backpressure) {
+        String mailbox = MailService.mailbox(config);
+        Semaphore buffer = new Semaphore(backpressure.bufferSize());
+        ExecutorService parsers = Executors.newVirtualThreadPerTaskExecutor();
+        Scheduler scheduler = Schedulers.fromExecutor(parsers);
+
+        Flux<QueuedMessage> messages = Flux.create(sink -> {
+            // IDLE blocks until the server notifies a change, a virtual thread avoids pinning a platform thread per trigger
+            Thread.ofVirtual()
+                .name("mail-idle-" + this.getId())
+                .start(() -> {
+                    try {
+                        this.idle(runContext, config, new MessageQueue(sink, buffer, backpressure.overflowPolicy()));
+                    } finally {
+                        sink.complete();
+                    }
+                });
+
+            sink.onCancel(this::stop);
+        }, FluxSink.OverflowStrategy.BUFFER);
+
+        return messages
+            .flatMapSequential(
+                message -> Mono.fromCallable(() -> new Received(this.parse(runContext, config, message), message.checkpoint(mailbox)))
+                    .subscribeOn(scheduler)
+                    .onErrorResume(e -> {
+                        if (isActive.get()) {
+                            runContext.logger().error("Error processing new message", e);
+                        }
+                        return Mono.just(new Received(null, message.checkpoint(mailbox)));
+                    })
+                    .doFinally(signalType -> this.releaseBuffer(buffer, backpressure)),
+                backpressure.parsingConcurrency()
+            )
+            .doFinally(signalType -> parsers.shutdown());
+    }
+
+    /**
+     * Keep an IMAP IDLE session open until the trigger is stopped, reconnecting with an exponential backoff whenever
+     * the connection is lost and replaying the messages received in the meantime.
+     */
+    private void idle(RunContext runContext, MailConfiguration config, MessageQueue queue) {
+        Duration backoff = RECONNECT_BACKOFF;
+
+        while (isActive.get()) {
             Store store = null;
-            IMAPFolder Imapfolder = null;
+            IMAPFolder folder = null;
+            Thread keepAlive = null;
 
             try {
                 Properties props = MailService.setupMailProperties(config.protocol, config.host, config.port,
@@ -160,73 +273,220 @@ public class RealTimeTrigger extends AbstractMailTrigger
 
                 MailService.connectToStore(store, config.host, config.port, config.username, config.password,
                     runContext);
-                Imapfolder = (IMAPFolder) store.getFolder(config.folder);
-                Imapfolder.open(Folder.READ_ONLY);
+
+                if (!((IMAPStore) store).hasCapability("IDLE")) {
+                    queue.sink().error(new IllegalStateException("The IMAP server " + config.host + " doesn't support the IDLE command"));
+                    return;
+                }
+
+                folder = (IMAPFolder) store.getFolder(config.folder);
+                folder.open(Folder.READ_ONLY);
 
                 // Store references for cleanup
                 activeStore.set(store);
-                activeFolder.set(Imapfolder);
+                activeFolder.set(folder);
 
-                runContext.logger().info("Connected to {}:{}", config.host, config.port);
-                runContext.logger().info("Starting IMAP IDLE monitoring on folder: {}", config.folder);
+                this.queueNewMessages(runContext, config, folder, queue);
 
-                final IMAPFolder folder = Imapfolder;
-                folder.addMessageCountListener(new MessageCountListener() {
-                    @Override
-                    public void messagesAdded(MessageCountEvent e) {
-                        try {
-                            for (Message message : e.getMessages()) {
-                                if (!isActive.get())
-                                    break;
-
-                                if (message instanceof MimeMessage mimeMessage) {
-                                    EmailData emailData = MailService.parseEmailData(mimeMessage);
-                                    if (emailData != null) {
-                                        runContext.logger().info("IMAP IDLE: New email - Subject: '{}', From: '{}'",
-                                            emailData.getSubject(), emailData.getFrom());
-                                        sink.next(emailData);
-                                    }
-                                }
-                            }
-                        } catch (Exception ex) {
-                            if (isActive.get()) {
-                                runContext.logger().error("Error processing new messages", ex);
-                            }
-                        }
-                    }
+                backoff = RECONNECT_BACKOFF;
+                keepAlive = this.keepAlive(runContext, folder);
 
-                    @Override
-                    public void messagesRemoved(MessageCountEvent e) {}
-                });
+                runContext.logger().info("Starting IMAP IDLE monitoring on folder: {}", config.folder);
 
                 while (isActive.get() && folder.isOpen()) {
-                    try {
-                        folder.idle();
-                    } catch (Exception e) {
-                        if (isActive.get()) {
-                            runContext.logger().error("IMAP IDLE error", e);
-                            sink.error(e);
-                            break;
-                        }
-                    }
+                    // returns on the first notification of the server, or when another command interrupts it
+                    folder.idle(true);
 
-                    // Check if thread was interrupted
-                    if (Thread.currentThread().isInterrupted()) {
-                        isActive.set(false);
-                        break;
-                    }
+                    // nothing is read from the server while the queue blocks, the notifications wait on the connection
+                    this.queueNewMessages(runContext, config, folder, queue);
                 }
-
             } catch (Exception e) {
                 if (isActive.get()) {
-                    sink.error(e);
+                    runContext.logger().warn("IMAP IDLE connection lost, reconnecting in {}", backoff, e);
                 }
             } finally {
-                sink.complete();
-                cleanupImapResources(runContext, store, Imapfolder);
+                if (keepAlive != null) {
+                    keepAlive.interrupt();
+                }
+
+                cleanupImapResources(runContext, store, folder);
             }
 
-        }, FluxSink.OverflowStrategy.BUFFER);
+            if (isActive.get()) {
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    isActive.set(false);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                backoff = backoff.multipliedBy(2).compareTo(MAX_RECONNECT_BACKOFF) > 0 ? MAX_RECONNECT_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    /**
+     * Servers end an IDLE command after 30 minutes, so a NOOP regularly interrupts it before that.
+     */
+    private Thread keepAlive(RunContext runContext, IMAPFolder folder) {
+        return Thread.ofVirtual()
+            .name("mail-idle-keep-alive-" + this.getId())
+            .start(() -> {
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        Thread.sleep(IDLE_REFRESH);
+
+                        folder.doCommand(protocol -> {
+                            protocol.noop();
+                            return null;
+                        });
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (MessagingException e) {
+                    // the IDLE loop detects the broken connection and reconnects
+                    runContext.logger().debug("IMAP keep alive failed", e);
+                }
+            });
+    }
+
+    /**
+     * Queue the UIDs of the messages received after the last queued one: the new messages notified by IDLE, the ones
+     * received while the connection was down, and the ones left on the server while the buffer was full. A restarted
+     * trigger starts after the last emitted message, as persisted in the state store. On the very first connection, or
+     * if the UIDs of the folder were reset, only the messages received from now on are queued.
+     */
+    private void queueNewMessages(RunContext runContext, MailConfiguration config, IMAPFolder folder,
+                                  MessageQueue queue) throws Exception {
+        String mailbox = MailService.mailbox(config);
+        MailService.UidCheckpoint checkpoint = this.queued.get();
+        long uidValidity = folder.getUIDValidity();
+
+        if (checkpoint == null) {
+            checkpoint = MailService.readState(runContext, this.getId(), MailService.UidCheckpoint.class)
+                .filter(state -> mailbox.equals(state.mailbox()))
+                .orElse(null);
+            this.checkpoint.set(checkpoint);
+        }
+
+        if (checkpoint == null || checkpoint.uidValidity() != uidValidity) {
+            if (checkpoint != null) {
+                runContext.logger().warn("The UIDs of folder '{}' were reset, only the emails received from now on are emitted", config.folder);
+            }
+
+            int messageCount = folder.getMessageCount();
+            long lastUid = messageCount > 0 ? folder.getUID(folder.getMessage(messageCount)) : 0;
+
+            MailService.UidCheckpoint start = new MailService.UidCheckpoint(mailbox, uidValidity, lastUid);
+            this.queued.set(start);
+            this.persist(runContext, start);
+            return;
+        }
+
+        this.queued.set(checkpoint);
+
+        // a single UID FETCH for the whole batch
+        Message[] messages = folder.getMessagesByUID(checkpoint.lastUid() + 1, UIDFolder.MAXUID);
+
+        for (Message message : messages) {
+            long uid = folder.getUID(message);
+
+            // a "n:*" range always contains the last message
+            if (uid <= checkpoint.lastUid()) {
+                continue;
+            }
+
+            if (!isActive.get() || !queue.offer(new QueuedMessage(uidValidity, uid))) {
+                break;
+            }
+
+            this.queued.set(new MailService.UidCheckpoint(mailbox, uidValidity, uid));
+        }
+    }
+
+    /**
+     * Called once the execution of a message was emitted, the messages being emitted in UID order.
+     */
+    private synchronized void commit(RunContext runContext, MailService.UidCheckpoint emitted) {
+        MailService.UidCheckpoint current = this.checkpoint.get();
+
+        // a message queued before the UIDs were reset must not move the checkpoint back to the old UIDs
+        if (current != null && (current.uidValidity() != emitted.uidValidity() || current.lastUid() >= emitted.lastUid())) {
+            return;
+        }
+
+        this.persist(runContext, emitted);
+    }
+
+    private synchronized void persist(RunContext runContext, MailService.UidCheckpoint checkpoint) {
+        try {
+            MailService.writeState(runContext, this.getId(), checkpoint);
+            this.checkpoint.set(checkpoint);
+        } catch (IOException e) {
+            // the next emitted email persists the checkpoint again
+            runContext.logger().warn("Unable to persist the checkpoint of folder '{}'", checkpoint.mailbox(), e);
+        }
+    }
+
+    /**
+     * Fetch and parse the message on a connection of the {@link MailStoreCache}, never on the IDLE one.
+     *
+     * @return the parsed email, or null if it doesn't match the filter or was deleted in the meantime
+     */
+    private EmailData parse(RunContext runContext, MailConfiguration config, QueuedMessage queued) throws Exception {
+        return this.parse(runContext, config, queued, true);
+    }
+
+    private EmailData parse(RunContext runContext, MailConfiguration config, QueuedMessage queued, boolean retry) throws Exception {
+        try (MailStoreCache.Lease lease = MailStoreCache.acquire(runContext, config)) {
+            try {
+                IMAPFolder folder = (IMAPFolder) lease.folder(config.folder);
+
+                if (folder.getUIDValidity() != queued.uidValidity()) {
+                    // the cached folder may have been selected before the UIDs were reset, select it again once
+                    lease.invalidate();
+                    return retry ? this.parse(runContext, config, queued, false) : null;
+                }
+
+                Message message = folder.getMessageByUID(queued.uid());
+                if (message == null) {
+                    return null;
+                }
+
+                if (config.searchTerm != null && folder.search(config.searchTerm, new Message[]{message}).length == 0) {
+                    return null;
+                }
+
+                folder.fetch(new Message[]{message}, MailService.fetchProfile());
+
+                EmailData emailData = MailService.parseEmailData(runContext, (MimeMessage) message, config);
+                runContext.logger().info("IMAP IDLE: New email - Subject: '{}', From: '{}'",
+                    emailData.getSubject(), emailData.getFrom());
+
+                return emailData;
+            } catch (FolderClosedException | StoreClosedException e) {
+                lease.invalidate();
+                throw e;
+            }
+        }
+    }
+
+    private void releaseBuffer(Semaphore buffer, Backpressure backpressure) {
+        buffer.release();
+
+        // wake up the IDLE loop to queue the spilled emails again
+        if (buffer.availablePermits() == backpressure.bufferSize() && spilled.compareAndSet(true, false) && activeFolder.get() instanceof IMAPFolder folder) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    folder.doCommand(protocol -> {
+                        protocol.noop();
+                        return null;
+                    });
+                } catch (MessagingException ignored) {
+                }
+            });
+        }
     }
 
     private void cleanupImapResources(RunContext runContext, Store store, IMAPFolder folder) {
@@ -255,12 +515,12 @@ public class RealTimeTrigger extends AbstractMailTrigger
         }
     }
 
+    /**
+     * Each poll only downloads the messages whose UIDL was not seen yet, the seen UIDLs being persisted in the state
+     * store to survive a restart of the trigger.
+     */
     private Flux<EmailData> createPop3PollingStream(RunContext runContext, MailConfiguration config) {
-
-        if (lastFetched.get() == null) {
-            lastFetched.set(ZonedDateTime.now().minus(getInterval()));
-            runContext.logger().info("Initialized POP3 polling with lastFetched: {}", lastFetched.get());
-        }
+        ZonedDateTime startDate = ZonedDateTime.now().minus(getInterval());
 
         return Flux.interval(Duration.ZERO, config.interval)
             .takeWhile(tick -> isActive.get())
@@ -271,29 +531,25 @@ public class RealTimeTrigger extends AbstractMailTrigger
                         return Flux.empty();
                     }
 
-                    ZonedDateTime currentLastFetched = lastFetched.get();
-                    runContext.logger().info("POP3 polling: checking for emails after {}", currentLastFetched);
-
-                    List<MailService.EmailData> newEmails = MailService.fetchNewEmails(runContext, config.protocol,
-                        config.host, config.port, config.username, config.password, config.folder,
-                        config.ssl, config.trustAllCertificates, currentLastFetched);
+                    if (uidlCheckpoint.get() == null) {
+                        uidlCheckpoint.set(MailService.readState(runContext, this.getId(), MailService.UidlCheckpoint.class).orElse(null));
+                    }
 
-                    if (!newEmails.isEmpty()) {
-                        ZonedDateTime latestEmailDate = newEmails.stream()
-                            .map(MailService.EmailData::getDate)
-                            .filter(Objects::nonNull)
-                            .max(ZonedDateTime::compareTo)
-                            .orElse(currentLastFetched);
+                    MailService.UidlCheckpoint checkpoint = uidlCheckpoint.get();
+                    MailService.UidlFetchResult result = MailService.fetchNewEmailsByUidl(runContext, config, checkpoint, startDate);
 
-                        lastFetched.set(latestEmailDate);
+                    if (result.checkpoint() != null && !result.checkpoint().equals(checkpoint)) {
+                        MailService.writeState(runContext, this.getId(), result.checkpoint());
+                        uidlCheckpoint.set(result.checkpoint());
+                    }
 
-                        runContext.logger().info("POP3 polling: found {} new emails, updated lastFetched to {}",
-                            newEmails.size(), latestEmailDate);
+                    if (!result.emails().isEmpty()) {
+                        runContext.logger().info("POP3 polling: found {} new emails", result.emails().size());
                     } else {
                         runContext.logger().info("POP3 polling: no new emails found");
                     }
 
-                    return Flux.fromIterable(newEmails);
+                    return Flux.fromIterable(result.emails());
                 } catch (Exception e) {
                     if (isActive.get()) {
                         runContext.logger().error("Error in POP3 polling", e);
@@ -346,4 +602,78 @@ public class RealTimeTrigger extends AbstractMailTrigger
             }
         }
     }
-}
\ No newline at end of file
+
+    public enum OverflowPolicy {
+        BLOCK,
+        SPILL
+    }
+
+    private record Backpressure(int bufferSize, OverflowPolicy overflowPolicy, int parsingConcurrency) {
+    }
+
+    private record QueuedMessage(long uidValidity, long uid) {
+        private MailService.UidCheckpoint checkpoint(String mailbox) {
+            return new MailService.UidCheckpoint(mailbox, uidValidity, uid);
+        }
+    }
+
+    /**
+     * @param emailData  null if the message was filtered out, deleted or failed to parse
+     * @param checkpoint the checkpoint to persist once the message is emitted, null if there is none
+     */
+    private record Received(EmailData emailData, MailService.UidCheckpoint checkpoint) {
+    }
+
+    /**
+     * The bounded queue between the IDLE connection and the parsing stage.
+     */
+    private class MessageQueue {
+        private final FluxSink<QueuedMessage> sink;
+        private final Semaphore buffer;
+        private final OverflowPolicy overflowPolicy;
+
+        private MessageQueue(FluxSink<QueuedMessage> sink, Semaphore buffer, OverflowPolicy overflowPolicy) {
+            this.sink = sink;
+            this.buffer = buffer;
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        private FluxSink<QueuedMessage> sink() {
+            return sink;
+        }
+
+        /**
+         * Called from the IDLE thread only: with {@code BLOCK}, waiting here stops reading from the server.
+         *
+         * @return false if the message, and the following ones, must be left on the server
+         */
+        private boolean offer(QueuedMessage message) {
+            if (overflowPolicy == OverflowPolicy.SPILL) {
+                if (!buffer.tryAcquire()) {
+                    spilled.set(true);
+
+                    // the buffer may have been drained before the flag was set, nothing would wake up the IDLE loop then
+                    if (!buffer.tryAcquire()) {
+                        return false;
+                    }
+
+                    spilled.set(false);
+                }
+            } else {
+                try {
+                    while (!buffer.tryAcquire(1, TimeUnit.SECONDS)) {
+                        if (!isActive.get()) {
+                            return false;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+
+            sink.next(message);
+            return true;
+        }
+    }
+}
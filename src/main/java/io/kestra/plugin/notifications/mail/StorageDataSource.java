@@ -0,0 +1,91 @@
+package io.kestra.plugin.notifications.mail;
+
+import io.kestra.core.runners.RunContext;
+import jakarta.activation.DataSource;
+import jakarta.activation.EncodingAware;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * A {@link DataSource} reading an internal storage file each time the MIME encoder asks for it.
+ * <p>
+ * Unlike a {@code ByteArrayDataSource}, the file is never held in memory: it is encoded in base64 straight from the
+ * storage to the SMTP connection, so the memory used by an attachment does not depend on its size.
+ */
+public class StorageDataSource implements DataSource, EncodingAware {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final RunContext runContext;
+    private final URI uri;
+    private final String name;
+    private final String contentType;
+
+    private StorageDataSource(RunContext runContext, URI uri, String name, String contentType) {
+        this.runContext = runContext;
+        this.uri = uri;
+        this.name = name;
+        this.contentType = contentType;
+    }
+
+    /**
+     * @param maxSize the maximum size of the file in bytes, or null for no limit
+     * @throws IllegalArgumentException if the file is bigger than {@code maxSize}
+     */
+    public static StorageDataSource of(RunContext runContext, URI uri, String name, String contentType, Long maxSize) throws IOException {
+        if (maxSize != null) {
+            checkSize(runContext, uri, name, maxSize);
+        }
+
+        return new StorageDataSource(runContext, uri, name, contentType);
+    }
+
+    private static void checkSize(RunContext runContext, URI uri, String name, long maxSize) throws IOException {
+        long size = 0;
+
+        // the storage doesn't expose the file size, so it is counted without keeping the content
+        try (InputStream inputStream = runContext.storage().getFile(uri)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                size += read;
+
+                if (size > maxSize) {
+                    throw new IllegalArgumentException(
+                        "The attachment '" + name + "' exceeds the maximum attachment size of " + maxSize + " bytes"
+                    );
+                }
+            }
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return runContext.storage().getFile(uri);
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        throw new IOException("Internal storage attachments are read-only");
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Skip the scan of the whole file that the MIME encoder does to guess the transfer encoding.
+     */
+    @Override
+    public String getEncoding() {
+        return "base64";
+    }
+}
@@ -1,5 +1,6 @@
 package io.kestra.plugin.notifications.messenger;
 
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.property.Property;
@@ -83,7 +84,11 @@ public class MessengerExecution extends MessengerTemplate implements ExecutionIn
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
         this.templateUri = Property.ofValue("messenger-template.peb");
-        this.templateRenderMap = Property.ofValue(ExecutionService.executionMap(runContext, this));
         return super.run(runContext);
     }
+
+    @Override
+    public Map<String, Object> templateVariables(RunContext runContext) throws IllegalVariableEvaluationException {
+        return ExecutionService.executionMap(runContext, this);
+    }
 }
\ No newline at end of file
@@ -2,20 +2,19 @@ package io.kestra.plugin.notifications.messenger;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
 import io.kestra.plugin.notifications.AbstractHttpOptionsTask;
+import io.kestra.plugin.notifications.TemplateInterface;
+import io.kestra.plugin.notifications.services.TemplateRegistry;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
-import org.apache.commons.io.IOUtils;
 
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,7 +24,7 @@ import java.util.Map;
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class MessengerTemplate extends AbstractHttpOptionsTask {
+public abstract class MessengerTemplate extends AbstractHttpOptionsTask implements TemplateInterface {
 
     @Schema(title = "Facebook Page ID", description = "Facebook Page ID that will send the messages")
     @NotNull
@@ -73,34 +72,32 @@ public abstract class MessengerTemplate extends AbstractHttpOptionsTask {
 
         String messageText = getMessageText(runContext);
 
-        try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
-            for (String recipientId : rRecipientIds) {
-                Map<String, Object> messagePayload = new HashMap<>();
-                messagePayload.put("recipient", Map.of("id", recipientId));
-                messagePayload.put("messaging_type", rMessagingType);
-                messagePayload.put("message", Map.of("text", messageText));
+        for (String recipientId : rRecipientIds) {
+            Map<String, Object> messagePayload = new HashMap<>();
+            messagePayload.put("recipient", Map.of("id", recipientId));
+            messagePayload.put("messaging_type", rMessagingType);
+            messagePayload.put("message", Map.of("text", messageText));
 
-                String payload = JacksonMapper.ofJson().writeValueAsString(messagePayload);
+            String payload = JacksonMapper.ofJson().writeValueAsString(messagePayload);
 
-                runContext.logger().debug("Sending Messenger message to {}", recipientId);
+            runContext.logger().debug("Sending Messenger message to {}", recipientId);
 
-                HttpRequest request = createRequestBuilder(runContext)
-                        .addHeader("Content-Type", "application/json")
-                        .uri(URI.create(apiUrl))
-                        .method("POST")
-                        .body(HttpRequest.StringRequestBody.builder().content(payload).build())
-                        .build();
+            HttpRequest request = createRequestBuilder(runContext)
+                    .addHeader("Content-Type", "application/json")
+                    .uri(URI.create(apiUrl))
+                    .method("POST")
+                    .body(HttpRequest.StringRequestBody.builder().content(payload).build())
+                    .build();
 
-                HttpResponse<String> response = client.request(request, String.class);
+            HttpResponse<String> response = this.request(runContext, request, String.class);
 
-                runContext.logger().debug("Response: {}", response.getBody());
+            runContext.logger().debug("Response: {}", response.getBody());
 
-                if (response.getStatus().getCode() == 200) {
-                    runContext.logger().info("Messenger message sent successfully to {}", recipientId);
-                } else {
-                    runContext.logger().error("Failed to send Messenger message to {}: {}", recipientId,
-                            response.getBody());
-                }
+            if (response.getStatus().getCode() == 200) {
+                runContext.logger().info("Messenger message sent successfully to {}", recipientId);
+            } else {
+                runContext.logger().error("Failed to send Messenger message to {}: {}", recipientId,
+                        response.getBody());
             }
         }
 
@@ -112,17 +109,9 @@ public abstract class MessengerTemplate extends AbstractHttpOptionsTask {
     final var rTemplateUri = runContext.render(this.templateUri).as(String.class);
 
     if (rTemplateUri.isPresent()) {
-        var resourceStream = this.getClass().getClassLoader().getResourceAsStream(rTemplateUri.get());
-        if (resourceStream == null) {
-            throw new IllegalArgumentException("Template resource not found: " + rTemplateUri.get());
-        }
-        String template = IOUtils.toString(
-                resourceStream,
-                StandardCharsets.UTF_8);
+        String template = TemplateRegistry.get(this.getClass().getClassLoader(), rTemplateUri.get());
 
-        Map<String, Object> templateVars = templateRenderMap != null
-                ? runContext.render(templateRenderMap).asMap(String.class, Object.class)
-                : Map.of();
+        Map<String, Object> templateVars = this.templateVariables(runContext);
 
         return runContext.render(template, templateVars);
     }
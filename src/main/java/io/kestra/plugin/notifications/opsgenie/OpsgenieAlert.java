@@ -2,7 +2,6 @@ package io.kestra.plugin.notifications.opsgenie;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.annotations.PluginProperty;
@@ -128,31 +127,33 @@ public class OpsgenieAlert extends AbstractHttpOptionsTask {
 
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
-        String url = runContext.render(this.url);
+        String payload = runContext.render(this.payload).as(String.class).orElse(null);
+
+        runContext.logger().debug("Send Opsgenie alert: {}", payload);
 
-        try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
-            String payload = runContext.render(this.payload).as(String.class).orElse(null);
+        return this.send(runContext, HttpRequest.StringRequestBody.builder()
+            .content(payload)
+            .build());
+    }
 
-            runContext.logger().debug("Send Opsgenie alert: {}", payload);
+    protected VoidOutput send(RunContext runContext, HttpRequest.RequestBody body) throws Exception {
+        String url = runContext.render(this.url);
 
-            HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
-                .addHeader("Content-Type", "application/json")
-                .uri(URI.create(url))
-                .addHeader(HttpHeaders.AUTHORIZATION, runContext.render(authorizationToken).as(String.class).orElse(null))
-                .method("POST")
-                .body(HttpRequest.StringRequestBody.builder()
-                    .content(payload)
-                    .build());
+        HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
+            .addHeader("Content-Type", "application/json")
+            .uri(URI.create(url))
+            .addHeader(HttpHeaders.AUTHORIZATION, runContext.render(authorizationToken).as(String.class).orElse(null))
+            .method("POST")
+            .body(body);
 
-            HttpRequest request = requestBuilder.build();
+        HttpRequest request = requestBuilder.build();
 
-            HttpResponse<String> response = client.request(request, String.class);
+        HttpResponse<String> response = this.request(runContext, request, String.class);
 
-            runContext.logger().debug("Response: {}", response.getBody());
+        runContext.logger().debug("Response: {}", response.getBody());
 
-            if (response.getStatus().getCode() == 200) {
-                runContext.logger().info("Request succeeded");
-            }
+        if (response.getStatus().getCode() == 200) {
+            runContext.logger().info("Request succeeded");
         }
 
         return null;
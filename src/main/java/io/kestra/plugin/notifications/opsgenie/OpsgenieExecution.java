@@ -1,6 +1,7 @@
 package io.kestra.plugin.notifications.opsgenie;
 
 import com.google.common.util.concurrent.ExecutionError;
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.executions.Execution;
@@ -88,8 +89,12 @@ public class OpsgenieExecution extends OpsgenieTemplate implements ExecutionInte
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
         this.templateUri = Property.ofValue("opsgenie-template.peb");
-        this.templateRenderMap = Property.ofValue(ExecutionService.executionMap(runContext, this));
 
         return super.run(runContext);
     }
+
+    @Override
+    public Map<String, Object> templateVariables(RunContext runContext) throws IllegalVariableEvaluationException {
+        return ExecutionService.executionMap(runContext, this);
+    }
 }
@@ -1,29 +1,29 @@
 package io.kestra.plugin.notifications.opsgenie;
 
+import io.kestra.core.http.HttpRequest;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.notifications.TemplateInterface;
+import io.kestra.plugin.notifications.services.TemplateRegistry;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
-import org.apache.commons.io.IOUtils;
 
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 @SuperBuilder
 @ToString
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class OpsgenieTemplate extends OpsgenieAlert {
+public abstract class OpsgenieTemplate extends OpsgenieAlert implements TemplateInterface {
 
     @Schema(
         title = "Template to use",
@@ -75,15 +75,9 @@ public abstract class OpsgenieTemplate extends OpsgenieAlert {
 
         final var renderedTemplateUri = runContext.render(this.templateUri).as(String.class);
         if (renderedTemplateUri.isPresent()) {
-            String template = IOUtils.toString(
-                Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(renderedTemplateUri.get())),
-                StandardCharsets.UTF_8
-            );
-
-            String render = runContext.render(template, templateRenderMap != null ?
-                runContext.render(templateRenderMap).asMap(String.class, Object.class) :
-                Map.of()
-            );
+            String template = TemplateRegistry.get(this.getClass().getClassLoader(), renderedTemplateUri.get());
+
+            String render = runContext.render(template, this.templateVariables(runContext));
             map = (Map<String, Object>) JacksonMapper.ofJson().readValue(render, Object.class);
         }
 
@@ -121,9 +115,9 @@ public abstract class OpsgenieTemplate extends OpsgenieAlert {
             map.put("priority", runContext.render(priority).as(String.class).get());
         }
 
-        this.payload = Property.ofValue(JacksonMapper.ofJson().writeValueAsString(map));
-
-        return super.run(runContext);
+        return this.send(runContext, HttpRequest.JsonRequestBody.builder()
+            .content(map)
+            .build());
     }
 
 }
@@ -1,10 +1,13 @@
 package io.kestra.plugin.notifications.pagerduty;
 
+import io.kestra.core.http.HttpRequest;
 import io.kestra.core.models.annotations.PluginProperty;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.notifications.TemplateInterface;
+import io.kestra.plugin.notifications.services.TemplateRegistry;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Size;
 import lombok.EqualsAndHashCode;
@@ -12,20 +15,17 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
-import org.apache.commons.io.IOUtils;
 
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 @SuperBuilder
 @ToString
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class PagerDutyTemplate extends PagerDutyAlert {
+public abstract class PagerDutyTemplate extends PagerDutyAlert implements TemplateInterface {
 
     @Schema(
         title = "Template to use",
@@ -69,15 +69,9 @@ public abstract class PagerDutyTemplate extends PagerDutyAlert {
 
         final var renderedTemplateUri = runContext.render(this.templateUri).as(String.class);
         if (renderedTemplateUri.isPresent()) {
-            String template = IOUtils.toString(
-                Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(renderedTemplateUri.get())),
-                StandardCharsets.UTF_8
-            );
-
-            String render = runContext.render(template, templateRenderMap != null ?
-                runContext.render(templateRenderMap).asMap(String.class, Object.class) :
-                Map.of()
-            );
+            String template = TemplateRegistry.get(this.getClass().getClassLoader(), renderedTemplateUri.get());
+
+            String render = runContext.render(template, this.templateVariables(runContext));
             map = (Map<String, Object>) JacksonMapper.ofJson().readValue(render, Object.class);
             payload = (Map<String, Object>) map.getOrDefault("payload", new HashMap<>());
         }
@@ -102,9 +96,9 @@ public abstract class PagerDutyTemplate extends PagerDutyAlert {
 
         map.replace("payload", payload);
 
-        this.payload = Property.ofValue(JacksonMapper.ofJson().writeValueAsString(map));
-
-        return super.run(runContext);
+        return this.send(runContext, HttpRequest.JsonRequestBody.builder()
+            .content(map)
+            .build());
     }
 
 }
@@ -0,0 +1,248 @@
+package io.kestra.plugin.notifications.sendgrid;
+
+import com.sendgrid.Client;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.runners.RunContext;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Worker-wide cache of {@link SendGrid} clients, shared by every {@link SendGridMailSend} and {@link SendGridMailSendBatch}.
+ * <p>
+ * Clients are keyed by API key. Each one has its own pool of HTTP connections to the SendGrid API, so repeated sends
+ * reuse keep-alive HTTPS connections instead of paying a TCP connection and a TLS negotiation per email.
+ * <p>
+ * At most {@link #MAX_CLIENTS} clients are kept, the least recently used one being closed to make room. A client is
+ * also closed once it has no lease and has stayed idle longer than {@link #IDLE_TIMEOUT}.
+ */
+public class SendGridClientCache {
+    private static final int MAX_CLIENTS = 32;
+    // connections to the single SendGrid API host, the default of the Apache client is only 2
+    private static final int MAX_CONNECTIONS = 20;
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(30);
+
+    private static final Map<Key, Entry> CLIENTS = new HashMap<>();
+
+    // the source of the idle times, replaced by the tests to let the idle timeout elapse
+    static LongSupplier ticker = System::nanoTime;
+
+    private static ScheduledExecutorService evictor;
+
+    /**
+     * Lease the client of the given API key, creating it if needed.
+     * The lease must be closed once the request is done, the client itself must never be closed by the caller.
+     */
+    public static Lease acquire(RunContext runContext, String apiKey) {
+        Key key = new Key(apiKey);
+
+        synchronized (CLIENTS) {
+            evictIdle(ticker.getAsLong());
+
+            Entry entry = CLIENTS.get(key);
+            if (entry == null) {
+                evictLeastRecentlyUsed();
+
+                entry = new Entry(newHttpClient(), apiKey);
+                CLIENTS.put(key, entry);
+                runContext.logger().debug("Created a new pooled SendGrid client");
+                runContext.metric(Counter.of("sendgrid.client.created", 1));
+                scheduleEviction();
+            } else {
+                runContext.metric(Counter.of("sendgrid.client.reused", 1));
+            }
+
+            entry.leases++;
+            entry.lastUsed = ticker.getAsLong();
+
+            return new Lease(entry);
+        }
+    }
+
+    private static CloseableHttpClient newHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(MAX_CONNECTIONS);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .build();
+    }
+
+    private static void release(Entry entry) {
+        synchronized (CLIENTS) {
+            entry.leases--;
+            entry.lastUsed = ticker.getAsLong();
+        }
+    }
+
+    private static void evictIdle(long now) {
+        Iterator<Entry> iterator = CLIENTS.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+
+            if (entry.leases == 0 && now - entry.lastUsed > IDLE_TIMEOUT.toNanos()) {
+                iterator.remove();
+                entry.close();
+            }
+        }
+    }
+
+    private static void evictLeastRecentlyUsed() {
+        if (CLIENTS.size() < MAX_CLIENTS) {
+            return;
+        }
+
+        CLIENTS.entrySet().stream()
+            .filter(e -> e.getValue().leases == 0)
+            .min(Map.Entry.comparingByValue((a, b) -> Long.compare(a.lastUsed, b.lastUsed)))
+            .ifPresent(e -> {
+                CLIENTS.remove(e.getKey());
+                e.getValue().close();
+            });
+    }
+
+    private static void scheduleEviction() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "notifications-sendgrid-client-cache-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            evictor.scheduleWithFixedDelay(
+                () -> {
+                    synchronized (CLIENTS) {
+                        evictIdle(ticker.getAsLong());
+                    }
+                },
+                EVICTION_INTERVAL.toMillis(),
+                EVICTION_INTERVAL.toMillis(),
+                TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    public static class Lease implements AutoCloseable {
+        private final Entry entry;
+        private boolean released = false;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public SendGrid getSendGrid() {
+            return entry.sendGrid;
+        }
+
+        /**
+         * Send the request, recording its latency in the {@code sendgrid.request.duration} timer.
+         */
+        public Response api(RunContext runContext, Request request) throws IOException {
+            return timed(runContext, request.getEndpoint(), () -> entry.sendGrid.api(request));
+        }
+
+        /**
+         * Post a body written directly on the connection, like a {@link SendGridMailBodyEntity}, instead of the
+         * string body of {@link #api(RunContext, Request)}.
+         */
+        public Response post(RunContext runContext, String endpoint, HttpEntity entity) throws IOException {
+            HttpPost post = new HttpPost("https://" + entry.sendGrid.getHost() + "/" + entry.sendGrid.getVersion() + "/" + endpoint);
+            entry.sendGrid.getRequestHeaders().forEach(post::setHeader);
+            post.setEntity(entity);
+
+            return timed(runContext, endpoint, () -> {
+                try (CloseableHttpResponse response = entry.httpClient.execute(post)) {
+                    Map<String, String> headers = new HashMap<>();
+                    for (var header : response.getAllHeaders()) {
+                        headers.put(header.getName(), header.getValue());
+                    }
+
+                    String body = response.getEntity() != null ? EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8) : null;
+
+                    return new Response(response.getStatusLine().getStatusCode(), body, headers);
+                }
+            });
+        }
+
+        private static Response timed(RunContext runContext, String endpoint, Callable<Response> call) throws IOException {
+            long start = System.nanoTime();
+            String status = "error";
+
+            try {
+                Response response = call.call();
+                status = String.valueOf(response.getStatusCode());
+
+                return response;
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            } finally {
+                runContext.metric(Timer.of(
+                    "sendgrid.request.duration",
+                    Duration.ofNanos(System.nanoTime() - start),
+                    "endpoint", endpoint,
+                    "status", status
+                ));
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(entry);
+            }
+        }
+    }
+
+    private static class Entry {
+        private final CloseableHttpClient httpClient;
+        private final SendGrid sendGrid;
+        private int leases = 0;
+        private long lastUsed = ticker.getAsLong();
+
+        private Entry(CloseableHttpClient httpClient, String apiKey) {
+            this.httpClient = httpClient;
+            this.sendGrid = new SendGrid(apiKey, new Client(httpClient));
+        }
+
+        private void close() {
+            try {
+                httpClient.close();
+            } catch (IOException ignored) {
+                // the client is discarded anyway
+            }
+        }
+    }
+
+    private record Key(String apiKey) {
+        @Override
+        public String toString() {
+            // never log the API key
+            return "Key[apiKey=***]";
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.kestra.plugin.notifications.sendgrid;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sendgrid.helpers.mail.Mail;
+import io.kestra.core.runners.RunContext;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JSON body of a {@code mail/send} request, written directly on the HTTP connection.
+ * <p>
+ * The attachments are base64 encoded chunk by chunk while being read from internal storage, so neither the files nor
+ * their encoded content nor the whole JSON body are ever held in memory.
+ */
+public class SendGridMailBodyEntity extends AbstractHttpEntity {
+    // same mapper settings as Mail#build()
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final RunContext runContext;
+    private final Mail mail;
+    private final List<StoredAttachment> attachments;
+
+    /**
+     * @param mail        the mail, without its attachments
+     * @param attachments the attachments, read from internal storage when the body is written
+     */
+    public SendGridMailBodyEntity(RunContext runContext, Mail mail, List<StoredAttachment> attachments) {
+        this.runContext = runContext;
+        this.mail = mail;
+        this.attachments = attachments;
+
+        this.setContentType(ContentType.APPLICATION_JSON.toString());
+        this.setChunked(true);
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        JsonNode node = MAPPER.valueToTree(mail);
+
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(outputStream)) {
+            generator.writeStartObject();
+
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!"attachments".equals(field.getKey())) {
+                    generator.writeFieldName(field.getKey());
+                    generator.writeTree(field.getValue());
+                }
+            }
+
+            if (!attachments.isEmpty()) {
+                generator.writeArrayFieldStart("attachments");
+                for (StoredAttachment attachment : attachments) {
+                    this.writeAttachment(generator, attachment);
+                }
+                generator.writeEndArray();
+            }
+
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeAttachment(JsonGenerator generator, StoredAttachment attachment) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("filename", attachment.filename());
+        generator.writeStringField("type", attachment.type());
+        generator.writeStringField("disposition", attachment.disposition());
+
+        generator.writeFieldName("content");
+        try (InputStream inputStream = runContext.storage().getFile(attachment.uri())) {
+            // standard base64 without line feeds, as expected by SendGrid
+            generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, inputStream, -1);
+        }
+
+        generator.writeEndObject();
+    }
+
+    /**
+     * The body as a stream, for the callers that read the entity instead of writing it, like request logging or
+     * {@code EntityUtils}. It is written by a virtual thread through a pipe, so it is never held in memory either.
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        PipedOutputStream outputStream = new PipedOutputStream();
+        WrittenInputStream inputStream = new WrittenInputStream(outputStream);
+
+        Thread.ofVirtual().name("sendgrid-mail-body").start(() -> {
+            try {
+                this.writeTo(outputStream);
+            } catch (IOException | RuntimeException e) {
+                // set before closing the pipe, so that the reader fails instead of seeing a truncated body
+                inputStream.failure = e;
+            } finally {
+                try {
+                    outputStream.close();
+                } catch (IOException ignored) {
+                    // the reader already closed the pipe
+                }
+            }
+        });
+
+        return inputStream;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        // the attachments are read again from internal storage
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    private static class WrittenInputStream extends PipedInputStream {
+        private volatile Exception failure;
+
+        private WrittenInputStream(PipedOutputStream outputStream) throws IOException {
+            super(outputStream, 64 * 1024);
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            int read = super.read();
+            if (read == -1) {
+                this.throwFailure();
+            }
+
+            return read;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read == -1) {
+                this.throwFailure();
+            }
+
+            return read;
+        }
+
+        private void throwFailure() throws IOException {
+            if (failure != null) {
+                throw new IOException("Unable to write the mail body", failure);
+            }
+        }
+    }
+
+    public record StoredAttachment(String filename, String type, String disposition, URI uri) {
+    }
+}
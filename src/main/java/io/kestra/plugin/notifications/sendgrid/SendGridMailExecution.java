@@ -1,5 +1,6 @@
 package io.kestra.plugin.notifications.sendgrid;
 
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.property.Property;
@@ -72,8 +73,12 @@ public class SendGridMailExecution extends SendGridMailTemplate implements Execu
     public SendGridMailSend.Output run(RunContext runContext) throws Exception {
         this.templateUri = Property.ofValue("sendgrid-mail-template.hbs.peb");
         this.textTemplateUri = Property.ofValue("sendgrid-text-template.hbs.peb");
-        this.templateRenderMap = Property.ofValue(ExecutionService.executionMap(runContext, this));
 
         return super.run(runContext);
     }
+
+    @Override
+    public Map<String, Object> templateVariables(RunContext runContext) throws IllegalVariableEvaluationException {
+        return ExecutionService.executionMap(runContext, this);
+    }
 }
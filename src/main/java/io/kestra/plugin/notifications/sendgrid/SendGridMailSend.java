@@ -1,11 +1,7 @@
 package io.kestra.plugin.notifications.sendgrid;
 
-import com.sendgrid.Method;
-import com.sendgrid.Request;
 import com.sendgrid.Response;
-import com.sendgrid.SendGrid;
 import com.sendgrid.helpers.mail.Mail;
-import com.sendgrid.helpers.mail.objects.Attachments;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
 import com.sendgrid.helpers.mail.objects.Personalization;
@@ -26,8 +22,8 @@ import lombok.extern.jackson.Jacksonized;
 import org.apache.http.entity.ContentType;
 import org.slf4j.Logger;
 
-import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -170,16 +166,15 @@ public class SendGridMailSend extends Task implements RunnableTask<SendGridMailS
             mail.addContent(htmlContent);
         }
 
+        // attachments are streamed from internal storage when the request is sent
+        List<SendGridMailBodyEntity.StoredAttachment> storedAttachments = new ArrayList<>();
+
         if (this.attachments != null) {
-            this.attachmentResources(this.attachments, runContext).stream()
-                .peek(attachment -> attachment.setDisposition("attachment"))
-                .forEach(mail::addAttachments);
+            storedAttachments.addAll(this.attachmentResources(this.attachments, "attachment", runContext));
         }
 
         if (this.embeddedImages != null) {
-            this.attachmentResources(this.embeddedImages, runContext).stream()
-                .peek(attachment -> attachment.setDisposition("inline"))
-                .forEach(mail::addAttachments);
+            storedAttachments.addAll(this.attachmentResources(this.embeddedImages, "inline", runContext));
         }
 
         final List<String> renderedCcList = runContext.render(this.cc).asList(String.class);
@@ -188,14 +183,11 @@ public class SendGridMailSend extends Task implements RunnableTask<SendGridMailS
         }
         mail.addPersonalization(personalization);
 
-        SendGrid sendGrid = new SendGrid(runContext.render(this.sendgridApiKey));
-
-        Request request = new Request();
-        request.setMethod(Method.POST);
-        request.setEndpoint("mail/send");
-        request.setBody(mail.build());
+        Response api;
+        try (SendGridClientCache.Lease lease = SendGridClientCache.acquire(runContext, runContext.render(this.sendgridApiKey))) {
+            api = lease.post(runContext, "mail/send", new SendGridMailBodyEntity(runContext, mail, storedAttachments));
+        }
 
-        Response api = sendGrid.api(request);
         String body = api.getBody();
         Map<String, String> headers = api.getHeaders();
         int statusCode = api.getStatusCode();
@@ -207,16 +199,15 @@ public class SendGridMailSend extends Task implements RunnableTask<SendGridMailS
         return Output.builder().body(body).headers(headers).statusCode(statusCode).build();
     }
 
-    private List<Attachments> attachmentResources(List<Attachment> list, RunContext runContext) throws Exception {
+    private List<SendGridMailBodyEntity.StoredAttachment> attachmentResources(List<Attachment> list, String disposition, RunContext runContext) throws Exception {
         return list
             .stream()
-            .map(throwFunction(attachment -> {
-                InputStream inputStream = runContext.storage()
-                    .getFile(URI.create(runContext.render(attachment.getUri()).as(String.class).get()));
-
-                return new Attachments.Builder(runContext.render(attachment.getName()).as(String.class).get(), inputStream)
-                    .withType(runContext.render(attachment.getContentType()).as(String.class).get()).build();
-            }))
+            .map(throwFunction(attachment -> new SendGridMailBodyEntity.StoredAttachment(
+                runContext.render(attachment.getName()).as(String.class).get(),
+                runContext.render(attachment.getContentType()).as(String.class).get(),
+                disposition,
+                URI.create(runContext.render(attachment.getUri()).as(String.class).get())
+            )))
             .collect(Collectors.toList());
     }
 
@@ -0,0 +1,560 @@
+package io.kestra.plugin.notifications.sendgrid;
+
+import com.sendgrid.Method;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.entity.ContentType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Deprecated
+@Schema(
+    title = "Send personalized SendGrid emails to many recipients.",
+    description = """
+        Each recipient, or each row of an internal storage ION file, gets its own email. Recipients are packed by \
+        `batchSize` into the personalizations of a single SendGrid API call, and the calls are sent in parallel.
+
+        The columns of each row are available as substitutions in the subject and contents, `-name-` being replaced \
+        by the `name` column, or as dynamic template data when `templateId` is set.
+
+        This task is deprecated and has been replaced by `plugin-twilio (io.kestra.plugin.twilio.sendgrid)`.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Send a personalized report to each customer of an ION file with `to`, `name` and `report` columns.",
+            full = true,
+            code = """
+                id: send_reports
+                namespace: company.team
+
+                inputs:
+                  - id: customers
+                    type: FILE
+
+                tasks:
+                  - id: send_emails
+                    type: io.kestra.plugin.notifications.sendgrid.SendGridMailSendBatch
+                    sendgridApiKey: "{{ secret('SENDGRID_API_KEY') }}"
+                    from: hello@kestra.io
+                    rows: "{{ inputs.customers }}"
+                    subject: "Your weekly report, -name-"
+                    htmlContent: "Hello -name-, here is your report: -report-"
+                """
+        ),
+        @Example(
+            title = "Send a SendGrid dynamic template to a list of recipients, one email each.",
+            full = true,
+            code = """
+                id: send_announcement
+                namespace: company.team
+
+                tasks:
+                  - id: send_emails
+                    type: io.kestra.plugin.notifications.sendgrid.SendGridMailSendBatch
+                    sendgridApiKey: "{{ secret('SENDGRID_API_KEY') }}"
+                    from: hello@kestra.io
+                    recipients:
+                      - alice@kestra.io
+                      - bob@kestra.io
+                    templateId: d-0123456789abcdef0123456789abcdef
+                """
+        )
+    }
+)
+public class SendGridMailSendBatch extends Task implements RunnableTask<SendGridMailSendBatch.Output> {
+    private static final int MAX_PERSONALIZATIONS = 1000;
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(1);
+
+    @Schema(
+        title = "The SendGrid API KEY"
+    )
+    @NotNull
+    private Property<String> sendgridApiKey;
+
+    @Schema(
+        title = "The address of the sender of the emails"
+    )
+    @NotNull
+    private Property<String> from;
+
+    @Schema(
+        title = "The recipients, each one receiving its own email",
+        description = "Each recipient is available as the `-to-` substitution. Either `recipients` or `rows` must be set."
+    )
+    private Property<List<String>> recipients;
+
+    @Schema(
+        title = "The URI of an internal storage ION file with one row per email",
+        description = "Each row must have a `to` column and can have a `subject` one overriding the task subject, " +
+            "the other columns are available as substitutions or dynamic template data."
+    )
+    private Property<String> rows;
+
+    @Schema(
+        title = "The subject of the emails"
+    )
+    private Property<String> subject;
+
+    @Schema(
+        title = "The email message body in HTML"
+    )
+    private Property<String> htmlContent;
+
+    @Schema(
+        title = "The email message body in plain text"
+    )
+    private Property<String> textContent;
+
+    @Schema(
+        title = "The ID of a SendGrid dynamic template",
+        description = "The row of each recipient is passed as the dynamic template data."
+    )
+    private Property<String> templateId;
+
+    @Schema(
+        title = "The number of recipients sent in a single API call",
+        description = "SendGrid accepts up to 1000 personalizations per call."
+    )
+    @Min(1)
+    @Max(MAX_PERSONALIZATIONS)
+    @Builder.Default
+    private Property<Integer> batchSize = Property.ofValue(MAX_PERSONALIZATIONS);
+
+    @Schema(
+        title = "The number of API calls sent at the same time"
+    )
+    @Builder.Default
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "The maximum number of attempts of each API call",
+        description = "Only the calls SendGrid surely didn't process are retried: the ones rejected with a `429 Too Many Requests` " +
+            "status, waiting for the delay of the `Retry-After` or `X-RateLimit-Reset` header when there is one, and the ones that " +
+            "failed to connect. A `5xx` status or a read timeout may come after the emails were accepted, so the chunk is reported " +
+            "as failed instead of being sent twice. Set it to 1 to disable retries."
+    )
+    @Builder.Default
+    private Property<Integer> maxAttempts = Property.ofValue(3);
+
+    @Schema(
+        title = "Whether to fail the task when some emails could not be sent",
+        description = "The task always fails when none of the emails could be sent."
+    )
+    @Builder.Default
+    private Property<Boolean> failOnError = Property.ofValue(false);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
+
+        try (SendGridClientCache.Lease lease = SendGridClientCache.acquire(runContext, runContext.render(this.sendgridApiKey).as(String.class).orElseThrow())) {
+            return this.send(runContext, lease::api);
+        }
+    }
+
+    /**
+     * Send every chunk through the given sender, the API of a {@link SendGridClientCache.Lease} outside of tests.
+     */
+    Output send(RunContext runContext, Sender sender) throws Exception {
+        int rBatchSize = Math.clamp(runContext.render(this.batchSize).as(Integer.class).orElse(MAX_PERSONALIZATIONS), 1, MAX_PERSONALIZATIONS);
+        int rConcurrency = Math.max(1, runContext.render(this.concurrency).as(Integer.class).orElse(4));
+        int rMaxAttempts = Math.max(1, runContext.render(this.maxAttempts).as(Integer.class).orElse(3));
+
+        Mail template = this.template(runContext);
+
+        AtomicLong total = new AtomicLong();
+        AtomicLong skipped = new AtomicLong();
+        AtomicLong sent = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<ChunkFailure> failures;
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Scheduler scheduler = Schedulers.fromExecutor(executor);
+
+            failures = this.readRows(runContext)
+                .index(Row::new)
+                .doOnNext(row -> total.incrementAndGet())
+                .filter(row -> {
+                    if (row.values().get("to") == null) {
+                        runContext.logger().warn("Skipping row {} with no 'to' column", row.position());
+                        skipped.incrementAndGet();
+                        failed.incrementAndGet();
+                        return false;
+                    }
+
+                    return true;
+                })
+                .buffer(rBatchSize)
+                .index()
+                .flatMapSequential(
+                    chunk -> Mono.fromCallable(() -> this.send(runContext, sender, rMaxAttempts, template, chunk.getT1(), chunk.getT2())).subscribeOn(scheduler),
+                    rConcurrency
+                )
+                .doOnNext(status -> (status.failure() == null ? sent : failed).addAndGet(status.size()))
+                .filter(status -> status.failure() != null)
+                .map(ChunkStatus::failure)
+                .collectList()
+                .block();
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+        runContext.metric(Counter.of("sent", sent.get()));
+        runContext.metric(Counter.of("failed", failed.get()));
+        runContext.metric(Counter.of("skipped", skipped.get()));
+        runContext.metric(Counter.of("failed.chunks", failures.size()));
+        runContext.metric(Timer.of("duration", duration));
+
+        runContext.logger().info("Sent {} emails out of {} in {}", sent.get(), total.get(), duration);
+
+        if (failed.get() > 0 && (sent.get() == 0 || runContext.render(this.failOnError).as(Boolean.class).orElse(false))) {
+            throw new IllegalStateException("Unable to send " + failed.get() + " emails out of " + total.get() +
+                (failures.isEmpty() ? "" : ", first error: " + failures.getFirst().getError()));
+        }
+
+        return Output.builder()
+            .total(total.get())
+            .sent(sent.get())
+            .failed(failed.get())
+            .skipped(skipped.get())
+            .failures(failures)
+            .duration(duration)
+            .build();
+    }
+
+    /**
+     * The parts of the mail shared by every chunk, rendered once.
+     */
+    private Mail template(RunContext runContext) throws Exception {
+        Mail mail = new Mail();
+        mail.setFrom(new Email(runContext.render(this.from).as(String.class).orElseThrow()));
+        mail.setSubject(runContext.render(this.subject).as(String.class).orElse(null));
+        mail.setTemplateId(runContext.render(this.templateId).as(String.class).orElse(null));
+
+        var rTextContent = runContext.render(this.textContent).as(String.class);
+        if (rTextContent.isPresent()) {
+            mail.addContent(new Content(ContentType.TEXT_PLAIN.getMimeType(), rTextContent.get()));
+        }
+
+        var rHtmlContent = runContext.render(this.htmlContent).as(String.class);
+        if (rHtmlContent.isPresent()) {
+            mail.addContent(new Content(ContentType.TEXT_HTML.getMimeType(), rHtmlContent.get()));
+        }
+
+        if (mail.getTemplateId() == null && mail.getContent() == null) {
+            throw new IllegalArgumentException("Either 'templateId', 'htmlContent' or 'textContent' must be provided");
+        }
+
+        return mail;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Flux<Map<String, Object>> readRows(RunContext runContext) throws Exception {
+        var rRows = runContext.render(this.rows).as(String.class);
+        if (rRows.isPresent()) {
+            URI uri = URI.create(rRows.get());
+
+            return Flux.using(
+                () -> new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8), FileSerde.BUFFER_SIZE),
+                reader -> FileSerde.readAll(reader).map(row -> (Map<String, Object>) row),
+                reader -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            );
+        }
+
+        List<String> rRecipients = runContext.render(this.recipients).asList(String.class);
+        if (rRecipients.isEmpty()) {
+            throw new IllegalArgumentException("Either 'recipients' or 'rows' must be provided");
+        }
+
+        return Flux.fromIterable(rRecipients).map(to -> Map.of("to", to));
+    }
+
+    private ChunkStatus send(RunContext runContext, Sender sender, int maxAttempts, Mail template, long index, List<Row> chunk) {
+        long firstRow = chunk.getFirst().position();
+        long lastRow = chunk.getLast().position();
+
+        try {
+            Mail mail = new Mail();
+            mail.setFrom(template.getFrom());
+            mail.setSubject(template.getSubject());
+            mail.setTemplateId(template.getTemplateId());
+            if (template.getContent() != null) {
+                template.getContent().forEach(mail::addContent);
+            }
+
+            for (Row row : chunk) {
+                mail.addPersonalization(this.personalization(row.values(), template.getTemplateId() != null));
+            }
+
+            Request request = new Request();
+            request.setMethod(Method.POST);
+            request.setEndpoint("mail/send");
+            request.setBody(mail.build());
+
+            for (int attempt = 1; ; attempt++) {
+                Response response;
+                try {
+                    response = sender.api(runContext, request);
+                } catch (IOException e) {
+                    if (attempt >= maxAttempts || !isNotSent(e)) {
+                        throw e;
+                    }
+
+                    Duration delay = backoff(attempt);
+                    runContext.logger().warn("Chunk {} failed to connect on attempt {}, retrying in {}: {}", index, attempt, delay, e.getMessage());
+                    Thread.sleep(delay.toMillis());
+                    continue;
+                }
+
+                if (response.getStatusCode() / 100 == 2) {
+                    runContext.logger().debug("Sent chunk {} of {} emails", index, chunk.size());
+
+                    return new ChunkStatus(chunk.size(), null);
+                }
+
+                Optional<Duration> delay = attempt < maxAttempts ? retryDelay(response, attempt) : Optional.empty();
+                if (delay.isEmpty()) {
+                    return this.failed(runContext, index, firstRow, lastRow, chunk.size(), response.getStatusCode(), response.getBody());
+                }
+
+                runContext.logger().warn("Chunk {} rejected with status code {} on attempt {}, retrying in {}", index, response.getStatusCode(), attempt, delay.get());
+                Thread.sleep(delay.get().toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return this.failed(runContext, index, firstRow, lastRow, chunk.size(), null, "Interrupted while waiting to retry");
+        } catch (Exception e) {
+            return this.failed(runContext, index, firstRow, lastRow, chunk.size(), null, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the delay before retrying a call rejected by a {@code 429} status, empty if it must not be retried
+     */
+    private static Optional<Duration> retryDelay(Response response, int attempt) {
+        // a 5xx may come after the emails were accepted, retrying would send the whole chunk twice
+        if (response.getStatusCode() != 429) {
+            return Optional.empty();
+        }
+
+        Optional<Duration> serverDelay = header(response, "Retry-After")
+            .flatMap(SendGridMailSendBatch::seconds)
+            .or(() -> header(response, "X-RateLimit-Reset")
+                .flatMap(SendGridMailSendBatch::seconds)
+                .map(epoch -> Duration.between(Instant.now(), Instant.EPOCH.plus(epoch)))
+                .map(delay -> delay.isNegative() ? Duration.ZERO : delay)
+            );
+
+        if (serverDelay.isPresent()) {
+            return serverDelay.get().compareTo(MAX_RETRY_DELAY) <= 0 ? serverDelay : Optional.empty();
+        }
+
+        return Optional.of(backoff(attempt));
+    }
+
+    /**
+     * @return true if the call failed before reaching SendGrid, like a refused connection
+     */
+    private static boolean isNotSent(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException
+                || cause instanceof UnknownHostException
+                || cause instanceof NoRouteToHostException
+                || cause instanceof ConnectTimeoutException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Duration backoff(int attempt) {
+        return RETRY_BACKOFF.multipliedBy(1L << Math.min(attempt - 1, 5));
+    }
+
+    private static Optional<String> header(Response response, String name) {
+        return response.getHeaders() == null ? Optional.empty() : response.getHeaders().entrySet().stream()
+            .filter(header -> header.getKey().equalsIgnoreCase(name))
+            .map(Map.Entry::getValue)
+            .findFirst();
+    }
+
+    private static Optional<Duration> seconds(String value) {
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            // an HTTP date, use the backoff
+            return Optional.empty();
+        }
+    }
+
+    private Personalization personalization(Map<String, Object> row, boolean dynamicTemplate) {
+        Personalization personalization = new Personalization();
+        personalization.addTo(new Email(row.get("to").toString()));
+
+        if (row.get("subject") != null) {
+            personalization.setSubject(row.get("subject").toString());
+        }
+
+        row.forEach((key, value) -> {
+            if (dynamicTemplate) {
+                personalization.addDynamicTemplateData(key, value);
+            } else if (value != null) {
+                personalization.addSubstitution("-" + key + "-", value.toString());
+            }
+        });
+
+        return personalization;
+    }
+
+    private ChunkStatus failed(RunContext runContext, long index, long firstRow, long lastRow, int size, Integer statusCode, String error) {
+        runContext.logger().warn("Unable to send chunk {} of {} emails, rows {} to {}, status code {}: {}", index, size, firstRow, lastRow, statusCode, error);
+
+        return new ChunkStatus(size, ChunkFailure.builder()
+            .index(index)
+            .firstRow(firstRow)
+            .lastRow(lastRow)
+            .size(size)
+            .statusCode(statusCode)
+            .error(error)
+            .build());
+    }
+
+    private record ChunkStatus(int size, ChunkFailure failure) {
+    }
+
+    /**
+     * @param position the position of the row in the recipients or the rows file, starting at 0
+     */
+    private record Row(long position, Map<String, Object> values) {
+    }
+
+    @FunctionalInterface
+    interface Sender {
+        Response api(RunContext runContext, Request request) throws IOException;
+    }
+
+    @Getter
+    @Builder
+    public static class ChunkFailure {
+        @Schema(
+            title = "The index of the chunk, starting at 0"
+        )
+        private long index;
+
+        @Schema(
+            title = "The position of the first row of the chunk in the recipients or the rows file, starting at 0"
+        )
+        private long firstRow;
+
+        @Schema(
+            title = "The position of the last row of the chunk in the recipients or the rows file",
+            description = "The skipped rows between `firstRow` and `lastRow` are not part of the chunk."
+        )
+        private long lastRow;
+
+        @Schema(
+            title = "The number of emails of the chunk"
+        )
+        private int size;
+
+        @Schema(
+            title = "The status code returned by SendGrid, if any"
+        )
+        private Integer statusCode;
+
+        @Schema(
+            title = "The error returned by SendGrid"
+        )
+        private String error;
+    }
+
+    @Getter
+    @Builder
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The number of rows"
+        )
+        private long total;
+
+        @Schema(
+            title = "The number of emails accepted by SendGrid"
+        )
+        private long sent;
+
+        @Schema(
+            title = "The number of emails that could not be sent, including the skipped rows"
+        )
+        private long failed;
+
+        @Schema(
+            title = "The number of rows skipped because they have no `to` column"
+        )
+        private long skipped;
+
+        @Schema(
+            title = "The chunks rejected by SendGrid"
+        )
+        private List<ChunkFailure> failures;
+
+        @Schema(
+            title = "The time spent sending the emails"
+        )
+        private Duration duration;
+    }
+}
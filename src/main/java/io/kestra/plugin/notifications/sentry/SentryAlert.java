@@ -2,7 +2,6 @@ package io.kestra.plugin.notifications.sentry;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.http.client.HttpClientResponseException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
@@ -145,6 +144,13 @@ public class SentryAlert extends AbstractHttpOptionsTask {
 
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
+        String payload = runContext.render(this.payload).as(String.class)
+            .orElseGet(throwSupplier(() -> runContext.render(DEFAULT_PAYLOAD.strip())));
+
+        return this.send(runContext, payload);
+    }
+
+    protected VoidOutput send(RunContext runContext, String payload) throws Exception {
         String dsn = runContext.render(this.dsn);
 
         String url = dsn;
@@ -162,40 +168,35 @@ public class SentryAlert extends AbstractHttpOptionsTask {
             };
         }
 
-        try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
-            String payload = runContext.render(this.payload).as(String.class)
-                .orElseGet(throwSupplier(() -> runContext.render(DEFAULT_PAYLOAD.strip())));
-
-            // Constructing the envelope payload
-            String envelope = constructEnvelope((String) runContext.getVariables().get("eventId"), payload);
-
-            // Trying to send to /envelope endpoint
-            try {
-                runContext.logger().debug("Attempting to send the following Sentry event envelope: {}", envelope);
-                HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
-                    .addHeader("Content-Type", "application/json")
-                    .uri(URI.create(url))
-                    .method("POST")
-                    .body(io.kestra.core.http.HttpRequest.StringRequestBody.builder()
-                        .content(envelope)
-                        .build());
-
-                HttpRequest request = requestBuilder.build();
-
-                HttpResponse<String> response = client.request(request, String.class);
-
-                runContext.logger().debug("Response: {}", response.getBody());
-
-                if (response.getStatus().getCode() == 200) {
-                    runContext.logger().info("Request succeeded");
-                }
-            } catch (HttpClientResponseException exception) { // Backward Compatibility cases
-                int errorCode = Objects.requireNonNull(exception.getResponse()).getStatus().getCode();
-                if ((errorCode == 401 || errorCode == 404) && endpointType.equals(EndpointType.ENVELOPE)) {
-                    // If the /envelope endpoint is Not Found or Unauthorized ("missing authorization information"), request UI to configure endpointType: store to send the request to /store endpoint.
-                    runContext.logger().error("Envelope endpoint not supported; Please try to configure the store endpoint instead: endpointType: store");
-                    throw exception;
-                }
+        // Constructing the envelope payload
+        String envelope = constructEnvelope((String) runContext.getVariables().get("eventId"), payload);
+
+        // Trying to send to /envelope endpoint
+        try {
+            runContext.logger().debug("Attempting to send the following Sentry event envelope: {}", envelope);
+            HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
+                .addHeader("Content-Type", "application/json")
+                .uri(URI.create(url))
+                .method("POST")
+                .body(io.kestra.core.http.HttpRequest.StringRequestBody.builder()
+                    .content(envelope)
+                    .build());
+
+            HttpRequest request = requestBuilder.build();
+
+            HttpResponse<String> response = this.request(runContext, request, String.class);
+
+            runContext.logger().debug("Response: {}", response.getBody());
+
+            if (response.getStatus().getCode() == 200) {
+                runContext.logger().info("Request succeeded");
+            }
+        } catch (HttpClientResponseException exception) { // Backward Compatibility cases
+            int errorCode = Objects.requireNonNull(exception.getResponse()).getStatus().getCode();
+            if ((errorCode == 401 || errorCode == 404) && endpointType.equals(EndpointType.ENVELOPE)) {
+                // If the /envelope endpoint is Not Found or Unauthorized ("missing authorization information"), request UI to configure endpointType: store to send the request to /store endpoint.
+                runContext.logger().error("Envelope endpoint not supported; Please try to configure the store endpoint instead: endpointType: store");
+                throw exception;
             }
         }
 
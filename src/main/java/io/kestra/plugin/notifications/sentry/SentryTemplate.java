@@ -5,18 +5,17 @@ import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.notifications.TemplateInterface;
+import io.kestra.plugin.notifications.services.TemplateRegistry;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
-import org.apache.commons.io.IOUtils;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.UUID;
 
 @SuperBuilder
@@ -24,7 +23,7 @@ import java.util.UUID;
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class SentryTemplate extends SentryAlert {
+public abstract class SentryTemplate extends SentryAlert implements TemplateInterface {
 
     @Schema(
         title = "Template to use",
@@ -89,15 +88,9 @@ public abstract class SentryTemplate extends SentryAlert {
 
         final var renderedTemplateUri = runContext.render(this.templateUri).as(String.class);
         if (renderedTemplateUri.isPresent()) {
-            String template = IOUtils.toString(
-                Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(renderedTemplateUri.get())),
-                StandardCharsets.UTF_8
-                                              );
-
-            String render = runContext.render(template, templateRenderMap != null ?
-                runContext.render(templateRenderMap).asMap(String.class, Object.class) :
-                Map.of()
-            );
+            String template = TemplateRegistry.get(this.getClass().getClassLoader(), renderedTemplateUri.get());
+
+            String render = runContext.render(template, this.templateVariables(runContext));
             map = (Map<String, Object>) JacksonMapper.ofJson().readValue(render, Object.class);
         }
 
@@ -129,9 +122,7 @@ public abstract class SentryTemplate extends SentryAlert {
             map.put("errors", renderedErrorsMap);
         }
 
-        this.payload = Property.ofValue(JacksonMapper.ofJson().writeValueAsString(map));
-
-        return super.run(runContext);
+        return this.send(runContext, JacksonMapper.ofJson().writeValueAsString(map));
     }
 
 }
@@ -0,0 +1,60 @@
+package io.kestra.plugin.notifications.services;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.runners.RunContext;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived, bounded, worker-wide cache of the execution part of the render map built by
+ * {@link ExecutionService#executionMap}.
+ * <p>
+ * A failure is commonly notified to several channels at once, each {@code *Execution} task looking up the same
+ * execution: siblings running on the same worker share the fetched execution and the derived variables instead of
+ * querying the repository and resolving the execution URL again. Entries expire after {@link #TTL} and the least
+ * recently used one is dropped above {@link #MAX_SIZE} entries.
+ */
+public class ExecutionMapCache {
+    private static final int MAX_SIZE = 256;
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private static final Map<Object, Entry> ENTRIES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    /**
+     * @return the cached, unmodifiable, variables for this key or the ones computed by the loader
+     */
+    public static Map<String, Object> get(RunContext runContext, Object key, Supplier<Map<String, Object>> loader) {
+        synchronized (ENTRIES) {
+            Entry entry = ENTRIES.get(key);
+            if (entry != null && System.nanoTime() - entry.expiresAt < 0) {
+                runContext.metric(Counter.of("execution.cache.hit", 1));
+                return entry.variables;
+            }
+
+            ENTRIES.remove(key);
+        }
+
+        runContext.metric(Counter.of("execution.cache.miss", 1));
+
+        // loading can wait for the execution to end, so it must not hold the lock
+        Map<String, Object> variables = Collections.unmodifiableMap(loader.get());
+
+        synchronized (ENTRIES) {
+            ENTRIES.put(key, new Entry(variables, System.nanoTime() + TTL.toNanos()));
+        }
+
+        return variables;
+    }
+
+    private record Entry(Map<String, Object> variables, long expiresAt) {
+    }
+}
@@ -5,48 +5,36 @@ import io.kestra.core.models.executions.Execution;
 import io.kestra.core.models.executions.TaskRun;
 import io.kestra.core.models.flows.State;
 import io.kestra.core.models.property.Property;
-import io.kestra.core.models.tasks.retrys.Exponential;
 import io.kestra.core.repositories.ExecutionRepositoryInterface;
 import io.kestra.core.runners.DefaultRunContext;
 import io.kestra.core.runners.RunContext;
-import io.kestra.core.serializers.JacksonMapper;
 import io.kestra.core.utils.ListUtils;
-import io.kestra.core.utils.RetryUtils;
 import io.kestra.core.utils.UriProvider;
 import io.kestra.plugin.notifications.ExecutionInterface;
 
-import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 public class ExecutionService {
+    private static final ThreadLocal<Map<String, Object>> SHARED_VARIABLES = new ThreadLocal<>();
+
     public static Execution findExecution(RunContext runContext, Property<String> executionId) throws IllegalVariableEvaluationException, NoSuchElementException {
-        ExecutionRepositoryInterface executionRepository = ((DefaultRunContext)runContext).getApplicationContext().getBean(ExecutionRepositoryInterface.class);
-        RetryUtils.Instance<Execution, NoSuchElementException> retryInstance = ((DefaultRunContext)runContext).getApplicationContext().getBean(RetryUtils.class)
-            .of(Exponential.builder()
-                .delayFactor(2.0)
-                .interval(Duration.ofSeconds(1))
-                .maxInterval(Duration.ofSeconds(15))
-                .maxAttempts(-1)
-                .maxDuration(Duration.ofMinutes(10))
-                .build(),
-                runContext.logger()
-            );
+        return findExecution(runContext, LookupKey.of(runContext, executionId));
+    }
 
-        var executionRendererId = runContext.render(executionId).as(String.class).orElse(null);
-        var flowTriggerExecutionState = getOptionalFlowTriggerExecutionState(runContext);
+    private static Execution findExecution(RunContext runContext, LookupKey key) throws NoSuchElementException {
+        ExecutionRepositoryInterface executionRepository = ((DefaultRunContext)runContext).getApplicationContext().getBean(ExecutionRepositoryInterface.class);
 
-        var flowVars = (Map<String, String>) runContext.getVariables().get("flow");
-        var isCurrentExecution = isCurrentExecution(runContext, executionRendererId);
-        if (isCurrentExecution) {
+        if (key.isCurrentExecution()) {
             runContext.logger().info("Loading execution data for the current execution.");
         }
 
-        return retryInstance.run(
-            NoSuchElementException.class,
-            () -> executionRepository.findById(flowVars.get("tenantId"), executionRendererId)
-                .filter(foundExecution -> isExecutionInTheWantedState(foundExecution, isCurrentExecution, flowTriggerExecutionState))
-                .orElseThrow(() -> new NoSuchElementException("Unable to find execution '" + executionRendererId + "'"))
-
+        return ExecutionWaiter.await(
+            key,
+            key.executionId(),
+            () -> executionRepository.findById(key.tenantId(), key.executionId()),
+            foundExecution -> isExecutionInTheWantedState(foundExecution, key.isCurrentExecution(), key.flowTriggerExecutionState()),
+            runContext.logger()
         );
     }
 
@@ -80,14 +68,7 @@ public class ExecutionService {
     }
 
     public static Map<String, Object> executionMap(RunContext runContext, ExecutionInterface executionInterface) throws IllegalVariableEvaluationException {
-        Execution execution = ExecutionService.findExecution(runContext, executionInterface.getExecutionId());
-        UriProvider uriProvider = ((DefaultRunContext)runContext).getApplicationContext().getBean(UriProvider.class);
-
-        Map<String, Object> templateRenderMap = new HashMap<>();
-        templateRenderMap.put("duration", execution.getState().humanDuration());
-        templateRenderMap.put("startDate", execution.getState().getStartDate());
-        templateRenderMap.put("link", uriProvider.executionUrl(execution));
-        templateRenderMap.put("execution", JacksonMapper.toMap(execution));
+        Map<String, Object> templateRenderMap = new HashMap<>(executionVariables(runContext, executionInterface));
 
         runContext.render(executionInterface.getCustomMessage())
             .as(String.class)
@@ -98,11 +79,55 @@ public class ExecutionService {
             templateRenderMap.put("customFields", renderedCustomFields);
         }
 
-        var isCurrentExecution = isCurrentExecution(runContext, execution.getId());
+        return templateRenderMap;
+    }
+
+    /**
+     * Run the callable with execution variables that were already looked up, every {@link #executionMap} call made
+     * by the current thread reuses them instead of looking up the execution again.
+     */
+    public static <T> T withExecutionVariables(Map<String, Object> variables, Callable<T> callable) throws Exception {
+        Map<String, Object> previous = SHARED_VARIABLES.get();
+        SHARED_VARIABLES.set(variables);
+
+        try {
+            return callable.call();
+        } finally {
+            if (previous == null) {
+                SHARED_VARIABLES.remove();
+            } else {
+                SHARED_VARIABLES.set(previous);
+            }
+        }
+    }
+
+    private static Map<String, Object> executionVariables(RunContext runContext, ExecutionInterface executionInterface) throws IllegalVariableEvaluationException {
+        Map<String, Object> shared = SHARED_VARIABLES.get();
+        if (shared != null) {
+            return shared;
+        }
+
+        LookupKey key = LookupKey.of(runContext, executionInterface.getExecutionId());
+
+        // the current execution is still running, its data must not be shared
+        return key.isCurrentExecution() ?
+            executionVariables(runContext, key) :
+            ExecutionMapCache.get(runContext, key, () -> executionVariables(runContext, key));
+    }
+
+    private static Map<String, Object> executionVariables(RunContext runContext, LookupKey key) {
+        Execution execution = findExecution(runContext, key);
+        UriProvider uriProvider = ((DefaultRunContext)runContext).getApplicationContext().getBean(UriProvider.class);
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("duration", execution.getState().humanDuration());
+        variables.put("startDate", execution.getState().getStartDate());
+        variables.put("link", uriProvider.executionUrl(execution));
+        variables.put("execution", new LazyExecutionMap(execution));
 
         List<TaskRun> taskRuns;
 
-        if (isCurrentExecution) {
+        if (key.isCurrentExecution()) {
             taskRuns = execution.getTaskRunList();
         } else {
             taskRuns = execution.getTaskRunList().stream()
@@ -112,11 +137,11 @@ public class ExecutionService {
 
         if (!ListUtils.isEmpty(taskRuns)) {
             TaskRun lastTaskRun = taskRuns.getLast();
-            templateRenderMap.put("firstFailed", State.Type.FAILED.equals(lastTaskRun.getState().getCurrent()) ? lastTaskRun : false);
-            templateRenderMap.put("lastTask", lastTaskRun);
+            variables.put("firstFailed", State.Type.FAILED.equals(lastTaskRun.getState().getCurrent()) ? lastTaskRun : false);
+            variables.put("lastTask", lastTaskRun);
         }
 
-        return templateRenderMap;
+        return variables;
     }
 
     /**
@@ -135,4 +160,21 @@ public class ExecutionService {
         var executionVars = (Map<String, String>) runContext.getVariables().get("execution");
         return executionId.equals(executionVars.get("id"));
     }
+
+    /**
+     * Identify an execution lookup: the tenant, the execution and the state we wait for.
+     */
+    private record LookupKey(String tenantId, String executionId, boolean isCurrentExecution, Optional<String> flowTriggerExecutionState) {
+        private static LookupKey of(RunContext runContext, Property<String> executionId) throws IllegalVariableEvaluationException {
+            var executionRendererId = runContext.render(executionId).as(String.class).orElse(null);
+            var flowVars = (Map<String, String>) runContext.getVariables().get("flow");
+
+            return new LookupKey(
+                flowVars.get("tenantId"),
+                executionRendererId,
+                isCurrentExecution(runContext, executionRendererId),
+                getOptionalFlowTriggerExecutionState(runContext)
+            );
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package io.kestra.plugin.notifications.services;
+
+import io.kestra.core.models.executions.Execution;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Wait for an execution to reach the wanted state, shared by every notification task of the worker.
+ * <p>
+ * The repository is polled with short, growing and jittered intervals: the first polls happen within a few hundred
+ * milliseconds, which covers most Flow triggers, and the jitter keeps concurrent waiters from hitting the repository
+ * at the same time. Concurrent lookups with the same key are coalesced: the first caller polls, the others wait
+ * for its result, so a failure notified to several channels only triggers one series of repository queries. If the
+ * polling caller is interrupted, one of the waiting callers takes the lookup over.
+ */
+public class ExecutionWaiter {
+    private static final Duration INITIAL_INTERVAL = Duration.ofMillis(200);
+    private static final Duration MAX_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration MAX_DURATION = Duration.ofMinutes(10);
+    private static final double DELAY_FACTOR = 1.5;
+    private static final double JITTER = 0.2;
+
+    private static final Map<Object, CompletableFuture<Execution>> WAITERS = new ConcurrentHashMap<>();
+
+    /**
+     * @param key         identifies the lookup, callers with equal keys must use equivalent finders and conditions
+     * @param executionId the execution id, only used for logs and errors
+     * @param finder      fetch the execution
+     * @param wanted      the condition the fetched execution must match
+     * @throws NoSuchElementException if no matching execution was found after {@link #MAX_DURATION}, or if this caller
+     *                                was interrupted
+     */
+    public static Execution await(Object key, String executionId, Supplier<Optional<Execution>> finder, Predicate<Execution> wanted, Logger logger) throws NoSuchElementException {
+        while (true) {
+            CompletableFuture<Execution> waiter = new CompletableFuture<>();
+
+            CompletableFuture<Execution> pending = WAITERS.putIfAbsent(key, waiter);
+            if (pending != null) {
+                logger.debug("Joining the pending lookup of execution '{}'", executionId);
+
+                try {
+                    return join(pending, executionId);
+                } catch (InterruptedLookupException e) {
+                    // only the interrupted caller fails, the joiners start the lookup again, one of them polling
+                    logger.debug("The pending lookup of execution '{}' was interrupted, retrying", executionId);
+                    continue;
+                }
+            }
+
+            try {
+                Execution execution = poll(executionId, finder, wanted, logger);
+
+                // removed before completing, so that no caller joins a completed lookup
+                WAITERS.remove(key, waiter);
+                waiter.complete(execution);
+
+                return execution;
+            } catch (Throwable e) {
+                // any failure, errors included, must complete the lookup or its joiners would wait forever
+                WAITERS.remove(key, waiter);
+                waiter.completeExceptionally(e);
+
+                throw e;
+            }
+        }
+    }
+
+    private static Execution poll(String executionId, Supplier<Optional<Execution>> finder, Predicate<Execution> wanted, Logger logger) {
+        long deadline = System.nanoTime() + MAX_DURATION.toNanos();
+        long interval = INITIAL_INTERVAL.toMillis();
+
+        while (true) {
+            Optional<Execution> execution = finder.get().filter(wanted);
+            if (execution.isPresent()) {
+                return execution.get();
+            }
+
+            if (System.nanoTime() - deadline >= 0) {
+                throw new NoSuchElementException("Unable to find execution '" + executionId + "'");
+            }
+
+            long delay = jittered(interval);
+            logger.debug("Execution '{}' not found in the wanted state, retrying in {}ms", executionId, delay);
+
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedLookupException(executionId);
+            }
+
+            interval = Math.min((long) (interval * DELAY_FACTOR), MAX_INTERVAL.toMillis());
+        }
+    }
+
+    private static long jittered(long interval) {
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+
+        return Math.max(1, (long) (interval * factor));
+    }
+
+    private static Execution join(CompletableFuture<Execution> waiter, String executionId) {
+        try {
+            return waiter.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NoSuchElementException("Interrupted while waiting for execution '" + executionId + "'");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * The polling caller was interrupted, the lookup itself didn't fail.
+     */
+    private static class InterruptedLookupException extends NoSuchElementException {
+        private InterruptedLookupException(String executionId) {
+            super("Interrupted while waiting for execution '" + executionId + "'");
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package io.kestra.plugin.notifications.services;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Worker-wide circuit breakers, one per endpoint: the full URI of the request, so that webhooks of different tenants on
+ * the same host never open each other's breaker.
+ * <p>
+ * After {@code threshold} consecutive failures (I/O errors, {@code 5xx} or {@code 429} responses) the breaker opens: the
+ * requests to that endpoint fail right away instead of holding a worker thread until they time out. Once the open
+ * duration has elapsed, a single probe request is let through: its success closes the breaker, its failure opens it
+ * again. A probe that ends without an outcome, like on an interruption, is given back when its {@link Permit} is
+ * closed.
+ * <p>
+ * Only the {@link #MAX_ENDPOINTS} most recently used endpoints are tracked.
+ */
+public class HttpCircuitBreaker {
+    private static final int MAX_ENDPOINTS = 1024;
+
+    private static final Map<Key, Breaker> BREAKERS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Breaker> eldest) {
+            return size() > MAX_ENDPOINTS;
+        }
+    };
+
+    public static Breaker of(URI uri, int threshold, Duration openDuration) {
+        Key key = new Key(uri.toString(), threshold, openDuration);
+
+        synchronized (BREAKERS) {
+            // the path of a webhook URL often holds its secret, only the host is exposed in logs and metrics
+            return BREAKERS.computeIfAbsent(key, k -> new Breaker(uri.getScheme() + "://" + uri.getAuthority(), threshold, openDuration));
+        }
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private record Key(String uri, int threshold, Duration openDuration) {
+        @Override
+        public String toString() {
+            // never log the URI, it can hold a webhook secret
+            return "Key[threshold=" + threshold + ", openDuration=" + openDuration + "]";
+        }
+    }
+
+    public static class Breaker {
+        private final String endpoint;
+        private final int threshold;
+        private final Duration openDuration;
+
+        private State state = State.CLOSED;
+        private int failures = 0;
+        private long openedAt;
+        private boolean probing = false;
+        private long probe = 0;
+
+        private Breaker(String endpoint, int threshold, Duration openDuration) {
+            this.endpoint = endpoint;
+            this.threshold = threshold;
+            this.openDuration = openDuration;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public synchronized State getState() {
+            return state;
+        }
+
+        /**
+         * Ask for the permission to send a request, must be followed by {@link #onSuccess()} or {@link #onFailure()}
+         * when granted, then by closing the permit in a {@code finally} block.
+         *
+         * @throws OpenException if the breaker is open
+         */
+        public synchronized Permit acquire() throws OpenException {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openDuration.toNanos()) {
+                state = State.HALF_OPEN;
+            }
+
+            if (state == State.OPEN || (state == State.HALF_OPEN && probing)) {
+                throw new OpenException("Circuit breaker is open for '" + endpoint + "' after " + failures + " consecutive failures");
+            }
+
+            if (state == State.HALF_OPEN) {
+                probing = true;
+                return new Permit(this, ++probe);
+            }
+
+            return new Permit(this, 0);
+        }
+
+        private synchronized void release(long permit) {
+            if (permit != 0 && permit == probe) {
+                probing = false;
+            }
+        }
+
+        /**
+         * @return true if this success closed an open or half-open breaker
+         */
+        public synchronized boolean onSuccess() {
+            boolean closed = state != State.CLOSED;
+
+            state = State.CLOSED;
+            failures = 0;
+            probing = false;
+
+            return closed;
+        }
+
+        /**
+         * @return true if this failure opened the breaker
+         */
+        public synchronized boolean onFailure() {
+            failures++;
+            probing = false;
+
+            if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= threshold)) {
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * The permission to send a request, giving back the probe of a half-open breaker if the request recorded no outcome.
+     */
+    public record Permit(Breaker breaker, long probe) implements AutoCloseable {
+        /**
+         * @return true if this permit is the probe of a half-open breaker
+         */
+        public boolean isProbe() {
+            return probe != 0;
+        }
+
+        @Override
+        public void close() {
+            breaker.release(probe);
+        }
+    }
+
+    public static class OpenException extends IllegalStateException {
+        public OpenException(String message) {
+            super(message);
+        }
+    }
+}
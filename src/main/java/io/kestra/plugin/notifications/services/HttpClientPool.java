@@ -0,0 +1,326 @@
+package io.kestra.plugin.notifications.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClientException;
+import io.kestra.core.http.client.HttpClientRequestException;
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.notifications.AbstractHttpOptionsTask;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker-wide pool of HTTP connection managers, shared by every {@link AbstractHttpOptionsTask}.
+ * <p>
+ * Connection managers are keyed by the effective (rendered) {@link AbstractHttpOptionsTask.RequestOptions} that
+ * configure them, so tasks with the same options reuse the same keep-alive connections instead of paying a TCP + TLS
+ * handshake on every run. Per-request settings like headers stay on the request.
+ * <p>
+ * Only the connections are shared: each lease gets its own thin {@link Client} bound to the {@link RunContext} of the
+ * caller, so nothing of a run is retained by the pool once its lease is closed.
+ * <p>
+ * Each connection manager keeps up to {@link #MAX_CONNECTIONS_PER_ROUTE} connections per endpoint, a request waiting
+ * at most {@link #CONNECTION_REQUEST_TIMEOUT} for one of them to be free. A connection idle for more than
+ * {@link #VALIDATE_AFTER_INACTIVITY} is checked before being reused, so that a POST, which is not retried, is never sent
+ * over a connection the server already closed.
+ * <p>
+ * A connection manager is closed once it has no lease and has stayed idle longer than its pool idle timeout, and
+ * the idle connections of the others are closed after the same timeout.
+ */
+public class HttpClientPool {
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(1);
+    // a single webhook endpoint often gets concurrent notifications, the default of the Apache client is only 5
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 20;
+    private static final int MAX_CONNECTIONS = 100;
+    private static final Duration CONNECTION_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration VALIDATE_AFTER_INACTIVITY = Duration.ofSeconds(2);
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(30);
+
+    private static final Map<Key, Entry> CONNECTION_MANAGERS = new HashMap<>();
+
+    private static ScheduledExecutorService evictor;
+
+    /**
+     * Lease the connections matching the given options, creating their connection manager if needed.
+     * The lease must be closed once the request is done, it closes its client but never the shared connections.
+     */
+    public static Lease acquire(RunContext runContext, AbstractHttpOptionsTask.RequestOptions options) throws IllegalVariableEvaluationException {
+        Key key = Key.of(runContext, options);
+
+        synchronized (CONNECTION_MANAGERS) {
+            evictIdle();
+
+            Entry entry = CONNECTION_MANAGERS.get(key);
+            if (entry == null) {
+                entry = new Entry(key.connectionManager(), key.idleTimeout());
+                CONNECTION_MANAGERS.put(key, entry);
+                runContext.logger().debug("Created a new pooled HTTP connection manager for {}", key);
+                scheduleEviction();
+            }
+
+            entry.leases++;
+            return new Lease(entry, new Client(runContext, entry.connectionManager, key.defaultCharset()));
+        }
+    }
+
+    private static void release(Entry entry) {
+        synchronized (CONNECTION_MANAGERS) {
+            entry.leases--;
+            entry.lastUsed = System.nanoTime();
+        }
+    }
+
+    private static void evictIdle() {
+        long now = System.nanoTime();
+
+        Iterator<Entry> iterator = CONNECTION_MANAGERS.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+
+            if (entry.leases == 0 && now - entry.lastUsed > entry.idleTimeout.toNanos()) {
+                iterator.remove();
+                entry.connectionManager.close(CloseMode.GRACEFUL);
+            } else {
+                entry.connectionManager.closeExpired();
+                entry.connectionManager.closeIdle(TimeValue.of(entry.idleTimeout));
+            }
+        }
+    }
+
+    private static void scheduleEviction() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "notifications-http-client-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            evictor.scheduleWithFixedDelay(
+                () -> {
+                    synchronized (CONNECTION_MANAGERS) {
+                        evictIdle();
+                    }
+                },
+                EVICTION_INTERVAL.toMillis(),
+                EVICTION_INTERVAL.toMillis(),
+                TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    public static class Lease implements AutoCloseable {
+        private final Entry entry;
+        private final Client client;
+        private boolean released = false;
+
+        private Lease(Entry entry, Client client) {
+            this.entry = entry;
+            this.client = client;
+        }
+
+        public Client getClient() {
+            return client;
+        }
+
+        /**
+         * The shared connection manager, the same for every lease of the same options.
+         */
+        public PoolingHttpClientConnectionManager getConnectionManager() {
+            return entry.connectionManager;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                client.close();
+                release(entry);
+            }
+        }
+    }
+
+    /**
+     * A client bound to the {@link RunContext} of a single run, sending its requests over the pooled connections.
+     * <p>
+     * It configures what the core {@code HttpClient} was configured with by these tasks: the timeouts, the default
+     * charset and the {@code Kestra} user agent. The tasks never set a proxy, an authentication or request logs, so
+     * none is configured here either. Each request is logged at debug level and timed in the
+     * {@code http.request.duration} metric.
+     */
+    public static class Client {
+        private final RunContext runContext;
+        private final CloseableHttpClient httpClient;
+        private final Charset defaultCharset;
+
+        private Client(RunContext runContext, PoolingHttpClientConnectionManager connectionManager, Charset defaultCharset) {
+            this.runContext = runContext;
+            this.defaultCharset = defaultCharset;
+            this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                // closing this client must leave the pooled connections open
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.of(CONNECTION_REQUEST_TIMEOUT))
+                    .build()
+                )
+                .disableDefaultUserAgent()
+                .setUserAgent("Kestra")
+                .build();
+        }
+
+        /**
+         * Send the request, failing with a {@link HttpClientResponseException} on a status of 400 or more.
+         */
+        public <T> HttpResponse<T> request(HttpRequest request, Class<T> cls) throws HttpClientException, IllegalVariableEvaluationException {
+            HttpClientContext context = HttpClientContext.create();
+            runContext.logger().debug("Sending {} request to '{}'", request.getMethod(), request.getUri());
+
+            // a request that can't be built is a failure on our side, never one of the endpoint
+            ClassicHttpRequest httpRequest;
+            try {
+                httpRequest = this.build(request);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unable to build the " + request.getMethod() + " request: " + e.getMessage(), e);
+            }
+
+            HttpResponse<T> response;
+            long start = System.nanoTime();
+            String outcome = "error";
+            try {
+                response = httpClient.execute(httpRequest, context, r -> {
+                    T body = r.getEntity() == null ? null : this.body(r.getEntity(), cls);
+                    return HttpResponse.from(r, body, request, context);
+                });
+                outcome = String.valueOf(response.getStatus().getCode());
+            } catch (IOException e) {
+                throw new HttpClientRequestException(e.getMessage(), request, e);
+            } finally {
+                runContext.metric(Timer.of("http.request.duration", Duration.ofNanos(System.nanoTime() - start), "status", outcome));
+            }
+
+            int status = response.getStatus().getCode();
+            runContext.logger().debug("Received response {} from '{}'", status, request.getUri());
+
+            if (status >= 400) {
+                throw new HttpClientResponseException("Failed http request with response code '" + status + "'", response);
+            }
+
+            return response;
+        }
+
+        private ClassicHttpRequest build(HttpRequest request) throws IOException, IllegalVariableEvaluationException {
+            return request.to(runContext);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T body(HttpEntity entity, Class<T> cls) throws IOException {
+            if (cls == byte[].class) {
+                return (T) EntityUtils.toByteArray(entity);
+            }
+
+            String body;
+            try {
+                body = EntityUtils.toString(entity, defaultCharset);
+            } catch (ParseException e) {
+                throw new IOException(e);
+            }
+
+            if (cls == String.class) {
+                return (T) body;
+            }
+
+            try {
+                return body.isEmpty() ? null : JacksonMapper.ofJson().readValue(body, cls);
+            } catch (JsonProcessingException e) {
+                // the response was received, mapping it is a failure on our side
+                throw new IllegalStateException("Unable to read the response as " + cls.getSimpleName() + ": " + e.getOriginalMessage(), e);
+            }
+        }
+
+        private void close() {
+            httpClient.close(CloseMode.GRACEFUL);
+        }
+    }
+
+    private static class Entry {
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final Duration idleTimeout;
+        private int leases = 0;
+        private long lastUsed = System.nanoTime();
+
+        private Entry(PoolingHttpClientConnectionManager connectionManager, Duration idleTimeout) {
+            this.connectionManager = connectionManager;
+            this.idleTimeout = idleTimeout;
+        }
+    }
+
+    private record Key(Duration connectTimeout, Duration readIdleTimeout, Charset defaultCharset, Duration connectionPoolIdleTimeout) {
+        private static Key of(RunContext runContext, AbstractHttpOptionsTask.RequestOptions options) throws IllegalVariableEvaluationException {
+            if (options == null) {
+                return new Key(null, null, StandardCharsets.UTF_8, null);
+            }
+
+            return new Key(
+                runContext.render(options.getConnectTimeout()).as(Duration.class).orElse(null),
+                runContext.render(options.getReadIdleTimeout()).as(Duration.class).orElse(null),
+                runContext.render(options.getDefaultCharset()).as(Charset.class).orElse(StandardCharsets.UTF_8),
+                runContext.render(options.getConnectionPoolIdleTimeout()).as(Duration.class).orElse(null)
+            );
+        }
+
+        private Duration idleTimeout() {
+            if (connectionPoolIdleTimeout == null || connectionPoolIdleTimeout.isZero() || connectionPoolIdleTimeout.isNegative()) {
+                return DEFAULT_IDLE_TIMEOUT;
+            }
+
+            return connectionPoolIdleTimeout;
+        }
+
+        private PoolingHttpClientConnectionManager connectionManager() {
+            ConnectionConfig.Builder connectionConfig = ConnectionConfig.custom()
+                .setValidateAfterInactivity(TimeValue.of(VALIDATE_AFTER_INACTIVITY));
+
+            if (connectTimeout != null) {
+                connectionConfig.setConnectTimeout(Timeout.of(connectTimeout));
+            }
+
+            if (readIdleTimeout != null) {
+                connectionConfig.setSocketTimeout(Timeout.of(readIdleTimeout));
+            }
+
+            return PoolingHttpClientConnectionManagerBuilder.create()
+                .setDefaultConnectionConfig(connectionConfig.build())
+                .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+                .setMaxConnTotal(MAX_CONNECTIONS)
+                .build();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.kestra.plugin.notifications.services;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Worker-wide token buckets, one per notification destination (webhook URL, bot and chat...).
+ * <p>
+ * Each bucket holds up to {@link Rate#permits()} tokens and is refilled at that many tokens per {@link Rate#period()}.
+ * A request takes a token, or reserves the next one and waits for it, so bursts above the rate of the destination
+ * service are smoothed on the worker instead of being rejected with a {@code 429 Too Many Requests}. A request that
+ * would wait longer than its maximum wait doesn't reserve anything and fails right away, so that an alert storm
+ * doesn't hold a worker thread per queued notification.
+ * <p>
+ * Only the {@link #MAX_DESTINATIONS} most recently used destinations are tracked.
+ */
+public class HttpRateLimiter {
+    private static final int MAX_DESTINATIONS = 1024;
+
+    private static final Map<Key, Bucket> BUCKETS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Bucket> eldest) {
+            return size() > MAX_DESTINATIONS;
+        }
+    };
+
+    /**
+     * Wait until a request can be sent to the destination.
+     *
+     * @param maxWait the longest time to wait for a token
+     * @return the time spent waiting
+     * @throws WaitTooLongException if the next token is further away than {@code maxWait}
+     */
+    public static Duration acquire(String destination, Rate rate, Duration maxWait) throws InterruptedException, WaitTooLongException {
+        Bucket bucket;
+        synchronized (BUCKETS) {
+            bucket = BUCKETS.computeIfAbsent(new Key(destination, rate), key -> new Bucket(rate));
+        }
+
+        long waitNanos = bucket.reserve(maxWait.toNanos());
+        if (waitNanos < 0) {
+            throw new WaitTooLongException("Rate limit of the destination reached, the next request can't be sent within " + maxWait);
+        }
+
+        if (waitNanos > 0) {
+            Thread.sleep(Duration.ofNanos(waitNanos));
+        }
+
+        return Duration.ofNanos(waitNanos);
+    }
+
+    /**
+     * A number of requests allowed per period.
+     */
+    public record Rate(int permits, Duration period) {
+        public Rate {
+            if (permits <= 0) {
+                throw new IllegalArgumentException("The rate limit must be positive, got " + permits);
+            }
+
+            if (period == null || period.isZero() || period.isNegative()) {
+                throw new IllegalArgumentException("The rate limit period must be positive, got " + period);
+            }
+        }
+
+        private long nanosPerPermit() {
+            return period.toNanos() / permits;
+        }
+    }
+
+    private record Key(String destination, Rate rate) {
+    }
+
+    private static class Bucket {
+        private final Rate rate;
+        // the tokens can go negative, each missing token being a request waiting for the refill
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private Bucket(Rate rate) {
+            this.rate = rate;
+            this.tokens = rate.permits();
+        }
+
+        /**
+         * @return the time to wait for the reserved token, or -1 if it is longer than {@code maxWaitNanos} in which
+         * case no token is reserved
+         */
+        private synchronized long reserve(long maxWaitNanos) {
+            long now = System.nanoTime();
+            tokens = Math.min(rate.permits(), tokens + (double) (now - refilledAt) / rate.nanosPerPermit());
+            refilledAt = now;
+
+            double remaining = tokens - 1;
+            long waitNanos = remaining >= 0 ? 0 : (long) (-remaining * rate.nanosPerPermit());
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+
+            tokens = remaining;
+
+            return waitNanos;
+        }
+    }
+
+    public static class WaitTooLongException extends IllegalStateException {
+        public WaitTooLongException(String message) {
+            super(message);
+        }
+    }
+}
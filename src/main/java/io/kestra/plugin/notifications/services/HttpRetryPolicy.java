@@ -0,0 +1,141 @@
+package io.kestra.plugin.notifications.services;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClientException;
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.notifications.AbstractHttpOptionsTask;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Transport level retry policy of the {@link AbstractHttpOptionsTask} requests.
+ * <p>
+ * Most notification endpoints are non-idempotent POSTs, so only the failures where the server surely didn't process the
+ * request are retried: errors while connecting and {@code 429 Too Many Requests} responses. A read timeout or a
+ * {@code 5xx} response may come after the notification was sent, retrying them would send a duplicate alert.
+ * <p>
+ * Retries use an exponential and jittered backoff. When the server tells how long to wait through the
+ * {@code Retry-After}, {@code X-RateLimit-Reset-After} or {@code X-RateLimit-Reset} headers, that delay is used
+ * instead, as long as it stays below the maximum backoff.
+ */
+public record HttpRetryPolicy(int maxAttempts, Duration backoff, Duration maxBackoff, double jitter) {
+    public static HttpRetryPolicy of(RunContext runContext, AbstractHttpOptionsTask.RequestOptions options) throws IllegalVariableEvaluationException {
+        AbstractHttpOptionsTask.RequestOptions rOptions = options != null ? options : AbstractHttpOptionsTask.RequestOptions.builder().build();
+
+        return new HttpRetryPolicy(
+            runContext.render(rOptions.getMaxAttempts()).as(Integer.class).orElse(1),
+            runContext.render(rOptions.getRetryBackoff()).as(Duration.class).orElse(Duration.ofSeconds(1)),
+            runContext.render(rOptions.getMaxRetryBackoff()).as(Duration.class).orElse(Duration.ofSeconds(30)),
+            runContext.render(rOptions.getRetryJitter()).as(Double.class).orElse(0D)
+        );
+    }
+
+    /**
+     * @param attempt   the attempt that just failed, starting at 1
+     * @param exception the failure of this attempt
+     * @return the delay to wait before the next attempt, or empty if the request must not be retried
+     */
+    public Optional<Duration> delay(int attempt, HttpClientException exception) {
+        if (attempt >= maxAttempts) {
+            return Optional.empty();
+        }
+
+        if (exception instanceof HttpClientResponseException responseException) {
+            HttpResponse<?> response = responseException.getResponse();
+            if (response == null || response.getStatus().getCode() != 429) {
+                return Optional.empty();
+            }
+
+            Optional<Duration> serverDelay = serverDelay(response);
+            if (serverDelay.isPresent()) {
+                return serverDelay.get().compareTo(maxBackoff) <= 0 ? serverDelay : Optional.empty();
+            }
+
+            return Optional.of(this.backoff(attempt));
+        }
+
+        return isNotSent(exception) ? Optional.of(this.backoff(attempt)) : Optional.empty();
+    }
+
+    /**
+     * @return true if the failure happened before the request reached the server, like a refused connection
+     */
+    private static boolean isNotSent(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException
+                || cause instanceof UnknownHostException
+                || cause instanceof NoRouteToHostException
+                || cause instanceof ConnectTimeoutException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private Duration backoff(int attempt) {
+        long millis = backoff.toMillis() * (1L << Math.min(attempt - 1, 30));
+        millis = Math.min(millis, maxBackoff.toMillis());
+
+        if (jitter > 0) {
+            millis = (long) (millis * (1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter)));
+        }
+
+        return Duration.ofMillis(Math.max(0, millis));
+    }
+
+    private static Optional<Duration> serverDelay(HttpResponse<?> response) {
+        if (response.getHeaders() == null) {
+            return Optional.empty();
+        }
+
+        Optional<String> retryAfter = response.getHeaders().firstValue("Retry-After");
+        if (retryAfter.isPresent()) {
+            return parseRetryAfter(retryAfter.get().trim());
+        }
+
+        Optional<String> resetAfter = response.getHeaders().firstValue("X-RateLimit-Reset-After");
+        if (resetAfter.isPresent()) {
+            return seconds(resetAfter.get().trim());
+        }
+
+        return response.getHeaders().firstValue("X-RateLimit-Reset")
+            .flatMap(reset -> seconds(reset.trim()))
+            .map(epoch -> Duration.between(Instant.now(), Instant.EPOCH.plus(epoch)))
+            .map(delay -> delay.isNegative() ? Duration.ZERO : delay);
+    }
+
+    private static Optional<Duration> parseRetryAfter(String value) {
+        Optional<Duration> seconds = seconds(value);
+        if (seconds.isPresent()) {
+            return seconds;
+        }
+
+        try {
+            Duration delay = Duration.between(Instant.now(), ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+            return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Duration> seconds(String value) {
+        try {
+            return Optional.of(Duration.ofMillis((long) (Double.parseDouble(value) * 1000)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.kestra.plugin.notifications.services;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.serializers.JacksonMapper;
+
+import java.util.*;
+
+/**
+ * Read-only {@link Map} view of an {@link Execution}, equivalent to {@link JacksonMapper#toMap(Object)}.
+ * <p>
+ * Each top-level property is only converted the first time a template dereferences it, so rendering
+ * {@code execution.namespace} or {@code execution.state.current} never serializes the task run list, the inputs
+ * or the outputs of a large execution. The keys, the size and the emptiness of the map are computed without converting
+ * any property, only iterating over its entries (ex: {@code {{ execution | json }}}) materializes every property.
+ */
+public class LazyExecutionMap extends AbstractMap<String, Object> {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final Map<String, AnnotatedMember> ACCESSORS = accessors();
+
+    private final Execution execution;
+    private final Map<String, Object> materialized = new HashMap<>();
+
+    public LazyExecutionMap(Execution execution) {
+        this.execution = execution;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String name : ACCESSORS.keySet()) {
+            if (this.raw(name) != null) {
+                keys.add(name);
+            }
+        }
+
+        return Collections.unmodifiableSet(keys);
+    }
+
+    @Override
+    public int size() {
+        return this.keySet().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.keySet().isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String name && this.raw(name) != null;
+    }
+
+    @Override
+    public synchronized Object get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+
+        if (materialized.containsKey(name)) {
+            return materialized.get(name);
+        }
+
+        Object raw = this.raw(name);
+        Object value = raw == null ? null : MAPPER.convertValue(raw, Object.class);
+        materialized.put(name, value);
+
+        return value;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> all = new LinkedHashMap<>();
+        for (String name : this.keySet()) {
+            all.put(name, this.get(name));
+        }
+
+        return Collections.unmodifiableMap(all).entrySet();
+    }
+
+    /**
+     * @return true if the given property has already been converted, mostly useful to check that a render stayed lazy
+     */
+    public synchronized boolean isMaterialized(String name) {
+        return materialized.containsKey(name);
+    }
+
+    private Object raw(String name) {
+        AnnotatedMember accessor = ACCESSORS.get(name);
+
+        return accessor == null ? null : accessor.getValue(execution);
+    }
+
+    private static Map<String, AnnotatedMember> accessors() {
+        BeanDescription description = MAPPER.getSerializationConfig().introspect(MAPPER.constructType(Execution.class));
+
+        Map<String, AnnotatedMember> accessors = new LinkedHashMap<>();
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            AnnotatedMember accessor = property.getAccessor();
+            if (property.couldSerialize() && accessor != null) {
+                accessor.fixAccess(true);
+                accessors.put(property.getName(), accessor);
+            }
+        }
+
+        return accessors;
+    }
+}
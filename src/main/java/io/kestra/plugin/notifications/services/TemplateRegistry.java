@@ -0,0 +1,43 @@
+package io.kestra.plugin.notifications.services;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared registry of the classpath templates used by every {@code *Template} task.
+ * <p>
+ * Each template resource is read and decoded once per classloader, then the same {@link String} instance is returned
+ * on every run. Kestra's variable renderer caches compiled Pebble templates by their source, so handing it the same
+ * template also skips the parsing step after the first render.
+ * <p>
+ * Classloaders are weakly referenced so that unloading a plugin also releases its templates.
+ */
+public class TemplateRegistry {
+    private static final Map<ClassLoader, Map<String, String>> TEMPLATES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public static String get(ClassLoader classLoader, String templateUri) {
+        return TEMPLATES
+            .computeIfAbsent(classLoader, cl -> new ConcurrentHashMap<>())
+            .computeIfAbsent(templateUri, uri -> load(classLoader, uri));
+    }
+
+    private static String load(ClassLoader classLoader, String templateUri) {
+        try (InputStream inputStream = classLoader.getResourceAsStream(templateUri)) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("Template resource not found: " + templateUri);
+            }
+
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read template '" + templateUri + "'", e);
+        }
+    }
+}
@@ -2,7 +2,6 @@ package io.kestra.plugin.notifications.slack;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.annotations.PluginProperty;
@@ -11,6 +10,7 @@ import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
 import io.kestra.plugin.notifications.AbstractHttpOptionsTask;
+import io.kestra.plugin.notifications.services.HttpRateLimiter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.EqualsAndHashCode;
@@ -20,6 +20,7 @@ import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 import java.net.URI;
+import java.time.Duration;
 
 @SuperBuilder
 @ToString
@@ -204,28 +205,38 @@ public class SlackIncomingWebhook extends AbstractHttpOptionsTask {
 
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
-        String url = runContext.render(this.url);
         Object payloadObject = prepareMessage(runContext);
 
         runContext.logger().debug("Send Slack webhook: {}", payloadObject);
-        try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
-            HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
-                .addHeader("Content-Type", "application/json")
-                .uri(URI.create(url))
-                .method("POST")
-                .body(HttpRequest.JsonRequestBody.builder()
-                    .content(payloadObject)
-                    .build());
 
-            HttpRequest request = requestBuilder.build();
+        return this.send(runContext, HttpRequest.JsonRequestBody.builder()
+            .content(payloadObject)
+            .build());
+    }
+
+    @Override
+    protected HttpRateLimiter.Rate defaultRateLimit() {
+        // Slack incoming webhooks allow one message per second
+        return new HttpRateLimiter.Rate(1, Duration.ofSeconds(1));
+    }
+
+    protected VoidOutput send(RunContext runContext, HttpRequest.RequestBody body) throws Exception {
+        String url = runContext.render(this.url);
 
-            HttpResponse<String> response = client.request(request, String.class);
+        HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
+            .addHeader("Content-Type", "application/json")
+            .uri(URI.create(url))
+            .method("POST")
+            .body(body);
 
-            runContext.logger().debug("Response: {}", response.getBody());
+        HttpRequest request = requestBuilder.build();
 
-            if (response.getStatus().getCode() == 200) {
-                runContext.logger().info("Request succeeded");
-            }
+        HttpResponse<String> response = this.request(runContext, request, String.class);
+
+        runContext.logger().debug("Response: {}", response.getBody());
+
+        if (response.getStatus().getCode() == 200) {
+            runContext.logger().info("Request succeeded");
         }
         return null;
     }
@@ -1,28 +1,28 @@
 package io.kestra.plugin.notifications.slack;
 
+import io.kestra.core.http.HttpRequest;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.notifications.TemplateInterface;
+import io.kestra.plugin.notifications.services.TemplateRegistry;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
-import org.apache.commons.io.IOUtils;
 
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 @SuperBuilder
 @ToString
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class SlackTemplate extends SlackIncomingWebhook {
+public abstract class SlackTemplate extends SlackIncomingWebhook implements TemplateInterface {
     @Schema(
         title = "Slack channel to send the message to.",
         description = "This property works only with legacy webhook URLs, new Slack incoming webhook URLs are already tied to a specific channel. " +
@@ -71,15 +71,9 @@ public abstract class SlackTemplate extends SlackIncomingWebhook {
 
         final var renderedTemplateUri = runContext.render(this.templateUri).as(String.class);
         if (renderedTemplateUri.isPresent()) {
-            String template = IOUtils.toString(
-                Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(renderedTemplateUri.get())),
-                StandardCharsets.UTF_8
-            );
-
-            String render = runContext.render(template, templateRenderMap != null ?
-                runContext.render(templateRenderMap).asMap(String.class, Object.class) :
-                Map.of()
-            );
+            String template = TemplateRegistry.get(this.getClass().getClassLoader(), renderedTemplateUri.get());
+
+            String render = runContext.render(template, this.templateVariables(runContext));
             map = (Map<String, Object>) JacksonMapper.ofJson().readValue(render, Object.class);
         }
 
@@ -99,8 +93,8 @@ public abstract class SlackTemplate extends SlackIncomingWebhook {
             map.put("icon_emoji", runContext.render(this.iconEmoji).as(String.class).get());
         }
 
-        this.payload = Property.ofValue(JacksonMapper.ofJson().writeValueAsString(map));
-
-        return super.run(runContext);
+        return this.send(runContext, HttpRequest.JsonRequestBody.builder()
+            .content(map)
+            .build());
     }
 }
@@ -1,7 +1,6 @@
 package io.kestra.plugin.notifications.teams;
 
 import io.kestra.core.http.HttpResponse;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
@@ -147,29 +146,32 @@ public class TeamsIncomingWebhook  extends AbstractHttpOptionsTask {
 
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
-        String url = runContext.render(this.url);
+        String payload = runContext.render(this.payload).as(String.class).orElse(null);
+
+        runContext.logger().debug("Send Microsoft Teams webhook: {}", payload);
+
+        return this.send(runContext, HttpRequest.StringRequestBody.builder()
+            .content(payload)
+            .build());
+    }
 
-        try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
-            String payload = runContext.render(this.payload).as(String.class).orElse(null);
+    protected VoidOutput send(RunContext runContext, HttpRequest.RequestBody body) throws Exception {
+        String url = runContext.render(this.url);
 
-            runContext.logger().debug("Send Microsoft Teams webhook: {}", payload);
-            HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
-                .addHeader("Content-Type", "application/json")
-                .uri(URI.create(url))
-                .method("POST")
-                .body(io.kestra.core.http.HttpRequest.StringRequestBody.builder()
-                    .content(payload)
-                    .build());
+        HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
+            .addHeader("Content-Type", "application/json")
+            .uri(URI.create(url))
+            .method("POST")
+            .body(body);
 
-            HttpRequest request = requestBuilder.build();
+        HttpRequest request = requestBuilder.build();
 
-            HttpResponse<String> response = client.request(request, String.class);
+        HttpResponse<String> response = this.request(runContext, request, String.class);
 
-            runContext.logger().debug("Response: {}", response.getBody());
+        runContext.logger().debug("Response: {}", response.getBody());
 
-            if (response.getStatus().getCode() == 200) {
-                runContext.logger().info("Request succeeded");
-            }
+        if (response.getStatus().getCode() == 200) {
+            runContext.logger().info("Request succeeded");
         }
 
 
@@ -1,25 +1,25 @@
 package io.kestra.plugin.notifications.teams;
 
+import io.kestra.core.http.HttpRequest;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.notifications.TemplateInterface;
+import io.kestra.plugin.notifications.services.TemplateRegistry;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
-import org.apache.commons.io.IOUtils;
 
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 @SuperBuilder
 @ToString
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class TeamsTemplate extends TeamsIncomingWebhook {
+public abstract class TeamsTemplate extends TeamsIncomingWebhook implements TemplateInterface {
     @Schema(
         title = "Template to use",
         hidden = true
@@ -48,13 +48,10 @@ public abstract class TeamsTemplate extends TeamsIncomingWebhook {
 
         final var renderedTemplateUri = runContext.render(this.templateUri).as(String.class);
         if (renderedTemplateUri.isPresent()) {
-            String template = IOUtils.toString(
-                Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(renderedTemplateUri.get())),
-                StandardCharsets.UTF_8
-            );
+            String template = TemplateRegistry.get(this.getClass().getClassLoader(), renderedTemplateUri.get());
 
             Map<String, Object> copy = new HashMap<>();
-            final Map<String, Object> renderedTemplateRenderMap = runContext.render(templateRenderMap).asMap(String.class, Object.class);
+            final Map<String, Object> renderedTemplateRenderMap = this.templateVariables(runContext);
             if (!renderedTemplateRenderMap.isEmpty()) {
                 copy.putAll(renderedTemplateRenderMap);
             }
@@ -67,8 +64,8 @@ public abstract class TeamsTemplate extends TeamsIncomingWebhook {
             map = (Map<String, Object>) JacksonMapper.ofJson().readValue(render, Object.class);
         }
 
-        this.payload = Property.ofValue(JacksonMapper.ofJson().writeValueAsString(map));
-
-        return super.run(runContext);
+        return this.send(runContext, HttpRequest.JsonRequestBody.builder()
+            .content(map)
+            .build());
     }
 }
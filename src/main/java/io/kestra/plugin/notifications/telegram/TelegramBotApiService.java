@@ -5,7 +5,6 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.http.client.HttpClientException;
 import io.kestra.core.http.client.HttpClientResponseException;
 import io.micronaut.http.HttpStatus;
@@ -18,24 +17,25 @@ import java.util.Objects;
 
 public class TelegramBotApiService {
 
-    public static void send(HttpClient client, String destinationId, String apiToken, String message, String url, HttpRequest.HttpRequestBuilder requestBuilder, String parseMode) throws ErrorSendingMessageException {
+    public static HttpRequest request(String destinationId, String apiToken, String message, String url, HttpRequest.HttpRequestBuilder requestBuilder, String parseMode) {
 
         TelegramMessage payload = new TelegramMessage(destinationId, message, parseMode);
 
         String uri = url+ "/bot{token}/sendMessage".replace("{token}", apiToken);
 
-        requestBuilder
+        return requestBuilder
             .addHeader("Content-Type", "application/json")
             .uri(URI.create(uri))
             .method("POST")
             .body(HttpRequest.JsonRequestBody.builder()
                 .content(payload)
-                .build());
-
-        HttpRequest request = requestBuilder.build();
+                .build())
+            .build();
+    }
 
+    public static void send(Sender sender, HttpRequest request) throws ErrorSendingMessageException {
         try {
-            HttpResponse<TelegramBotApiResponse> exchange = client.request(request, TelegramBotApiService.TelegramBotApiResponse.class);
+            HttpResponse<TelegramBotApiResponse> exchange = sender.send(request);
 
             if (exchange.getStatus().getCode() != HttpStatus.OK.getCode()
                     || exchange.getBody() == null
@@ -49,6 +49,11 @@ public class TelegramBotApiService {
         }
     }
 
+    @FunctionalInterface
+    public interface Sender {
+        HttpResponse<TelegramBotApiResponse> send(HttpRequest request) throws HttpClientException, IllegalVariableEvaluationException;
+    }
+
     public record TelegramBotApiResponse(boolean ok, TelegramMessage result) {
     }
 
@@ -1,11 +1,11 @@
 package io.kestra.plugin.notifications.telegram;
 
 import io.kestra.core.http.HttpRequest;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.plugin.notifications.AbstractHttpOptionsTask;
+import io.kestra.plugin.notifications.services.HttpRateLimiter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
@@ -15,6 +15,8 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
+import java.time.Duration;
+
 @SuperBuilder
 @ToString
 @EqualsAndHashCode
@@ -55,17 +57,24 @@ public class TelegramSend extends AbstractHttpOptionsTask {
 
         HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext);
 
-        try (HttpClient httpClient = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
-            String destination = runContext.render(this.channel).as(String.class).orElseThrow();
-            String apiToken = runContext.render(this.token).as(String.class).orElseThrow();
-            String rendered = runContext.render(payload).as(String.class).orElseThrow();
-            String parseMode = runContext.render(this.parseMode).as(ParseMode.class).map(ParseMode::getValue).orElse(null);
-            TelegramBotApiService.send(httpClient, destination, apiToken, rendered, url, requestBuilder, parseMode);
-        }
+        String destination = runContext.render(this.channel).as(String.class).orElseThrow();
+        String apiToken = runContext.render(this.token).as(String.class).orElseThrow();
+        String rendered = runContext.render(payload).as(String.class).orElseThrow();
+        String parseMode = runContext.render(this.parseMode).as(ParseMode.class).map(ParseMode::getValue).orElse(null);
+
+        HttpRequest request = TelegramBotApiService.request(destination, apiToken, rendered, url, requestBuilder, parseMode);
+        // rate limited per bot and chat
+        TelegramBotApiService.send(r -> this.request(runContext, r, TelegramBotApiService.TelegramBotApiResponse.class, r.getUri() + "#" + destination), request);
 
         return null;
     }
 
+    @Override
+    protected HttpRateLimiter.Rate defaultRateLimit() {
+        // Telegram bots should not send more than one message per second to the same chat
+        return new HttpRateLimiter.Rate(1, Duration.ofSeconds(1));
+    }
+
     public enum ParseMode {
         HTML("HTML"),
         MARKDOWNV2("MarkdownV2");
@@ -2,7 +2,6 @@ package io.kestra.plugin.notifications.twilio;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.annotations.PluginProperty;
@@ -116,33 +115,36 @@ public class TwilioAlert extends AbstractHttpOptionsTask {
 
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
-        String url = runContext.render(this.url);
+        String payload = runContext.render(this.payload).as(String.class).orElse(null);
+
+        runContext.logger().debug("Send Twilio notification: {}", payload);
 
-        try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
-            String payload = runContext.render(this.payload).as(String.class).orElse(null);
-            String authHeader = Base64.getEncoder().encodeToString(
-                (runContext.render(accountSID) + ":" + runContext.render(authToken)).getBytes(StandardCharsets.UTF_8)
-            );
+        return this.send(runContext, HttpRequest.UrlEncodedRequestBody.builder()
+            .content(JacksonMapper.toMap(payload))
+            .build());
+    }
+
+    protected VoidOutput send(RunContext runContext, HttpRequest.RequestBody body) throws Exception {
+        String url = runContext.render(this.url);
+        String authHeader = Base64.getEncoder().encodeToString(
+            (runContext.render(accountSID) + ":" + runContext.render(authToken)).getBytes(StandardCharsets.UTF_8)
+        );
 
-            runContext.logger().debug("Send Twilio notification: {}", payload);
-            HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
-                .addHeader("Content-Type", "application/x-www-form-urlencoded")
-                .addHeader("Authorization", "Basic " + authHeader)
-                .uri(URI.create(url))
-                .method("POST")
-                .body(HttpRequest.UrlEncodedRequestBody.builder()
-                    .content(JacksonMapper.toMap(payload))
-                    .build());
+        HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
+            .addHeader("Content-Type", "application/x-www-form-urlencoded")
+            .addHeader("Authorization", "Basic " + authHeader)
+            .uri(URI.create(url))
+            .method("POST")
+            .body(body);
 
-            HttpRequest request = requestBuilder.build();
+        HttpRequest request = requestBuilder.build();
 
-            HttpResponse<String> response = client.request(request, String.class);
+        HttpResponse<String> response = this.request(runContext, request, String.class);
 
-            runContext.logger().debug("Response: {}", response.getBody());
+        runContext.logger().debug("Response: {}", response.getBody());
 
-            if (response.getStatus().getCode() == 200) {
-                runContext.logger().info("Request succeeded");
-            }
+        if (response.getStatus().getCode() == 200) {
+            runContext.logger().info("Request succeeded");
         }
         return null;
     }
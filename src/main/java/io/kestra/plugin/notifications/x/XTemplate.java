@@ -2,16 +2,16 @@ package io.kestra.plugin.notifications.x;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
 import io.kestra.plugin.notifications.AbstractHttpOptionsTask;
+import io.kestra.plugin.notifications.TemplateInterface;
+import io.kestra.plugin.notifications.services.TemplateRegistry;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
-import org.apache.commons.io.IOUtils;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -28,7 +28,7 @@ import java.util.stream.Collectors;
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class XTemplate extends AbstractHttpOptionsTask {
+public abstract class XTemplate extends AbstractHttpOptionsTask implements TemplateInterface {
 
     private static final String OAUTH_1_ALGORITHM = "HmacSHA1";
     private static final int MAX_POST_LENGTH = 280;
@@ -98,26 +98,24 @@ public abstract class XTemplate extends AbstractHttpOptionsTask {
 
         String payload = JacksonMapper.ofJson().writeValueAsString(postPayload);
 
-        try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
-            runContext.logger().debug("Sending X post");
+        runContext.logger().debug("Sending X post");
 
-            HttpRequest request = createRequestBuilder(runContext)
-                .addHeader("Content-Type", "application/json")
-                .addHeader("Authorization", authHeader)
-                .uri(URI.create(rUrl))
-                .method("POST")
-                .body(HttpRequest.StringRequestBody.builder().content(payload).build())
-                .build();
+        HttpRequest request = createRequestBuilder(runContext)
+            .addHeader("Content-Type", "application/json")
+            .addHeader("Authorization", authHeader)
+            .uri(URI.create(rUrl))
+            .method("POST")
+            .body(HttpRequest.StringRequestBody.builder().content(payload).build())
+            .build();
 
-            HttpResponse<String> response = client.request(request, String.class);
+        HttpResponse<String> response = this.request(runContext, request, String.class);
 
-            runContext.logger().debug("Response: {}", response.getBody());
+        runContext.logger().debug("Response: {}", response.getBody());
 
-            if (response.getStatus().getCode() == 201) {
-                runContext.logger().info("X post sent successfully");
-            } else {
-                runContext.logger().error("Failed to send X post: {}", response.getBody());
-            }
+        if (response.getStatus().getCode() == 201) {
+            runContext.logger().info("X post sent successfully");
+        } else {
+            runContext.logger().error("Failed to send X post: {}", response.getBody());
         }
 
         return null;
@@ -128,15 +126,9 @@ public abstract class XTemplate extends AbstractHttpOptionsTask {
         final var rTemplateUri = runContext.render(this.templateUri).as(String.class);
 
         if (rTemplateUri.isPresent()) {
-            var resourceStream = this.getClass().getClassLoader().getResourceAsStream(rTemplateUri.get());
-            if (resourceStream == null) {
-                throw new IllegalArgumentException("Template resource not found: " + rTemplateUri.get());
-            }
-            String template = IOUtils.toString(
-                resourceStream,
-                StandardCharsets.UTF_8);
-
-            Map<String, Object> rTemplateVars = runContext.render(templateRenderMap).asMap(String.class, Object.class);
+            String template = TemplateRegistry.get(this.getClass().getClassLoader(), rTemplateUri.get());
+
+            Map<String, Object> rTemplateVars = this.templateVariables(runContext);
 
             return runContext.render(template, rTemplateVars);
         }
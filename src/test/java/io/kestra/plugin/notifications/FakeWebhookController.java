@@ -2,6 +2,7 @@ package io.kestra.plugin.notifications;
 
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Consumes;
@@ -10,11 +11,13 @@ import io.micronaut.http.annotation.Post;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Controller("/webhook-unit-test")
 public class FakeWebhookController {
     public static String data;
     public static Map<String, String> headers = new HashMap<>();
+    public static AtomicInteger rateLimitedCalls = new AtomicInteger();
 
     @Post
     @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_FORM_URLENCODED})
@@ -36,4 +39,16 @@ public class FakeWebhookController {
 
         return HttpResponse.ok("ok");
     }
+
+    @Post("/rate-limited")
+    @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_FORM_URLENCODED})
+    public HttpResponse<String> postRateLimited(@Body String data) {
+        if (rateLimitedCalls.getAndIncrement() == 0) {
+            return HttpResponse.<String>status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "1");
+        }
+
+        FakeWebhookController.data = data;
+        return HttpResponse.ok("ok");
+    }
 }
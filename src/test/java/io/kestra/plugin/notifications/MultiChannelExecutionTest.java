@@ -0,0 +1,110 @@
+package io.kestra.plugin.notifications;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.executions.TaskRun;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.repositories.LocalFlowRepositoryLoader;
+import io.kestra.core.runners.TestRunner;
+import io.kestra.core.utils.TestsUtils;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class MultiChannelExecutionTest extends AbstractNotificationTest {
+    @Inject
+    protected TestRunner runner;
+
+    @Inject
+    protected LocalFlowRepositoryLoader repositoryLoader;
+
+    @BeforeEach
+    protected void init() throws IOException, URISyntaxException {
+        repositoryLoader.load(Objects.requireNonNull(MultiChannelExecutionTest.class.getClassLoader().getResource("flows/common")));
+        repositoryLoader.load(Objects.requireNonNull(MultiChannelExecutionTest.class.getClassLoader().getResource("flows/multichannel")));
+        this.runner.run();
+    }
+
+    @Test
+    void flow() throws Exception {
+        var execution = runAndCaptureExecution(
+            "main-flow-that-fails",
+            "multichannel"
+        );
+
+        String receivedData = waitForWebhookData(() -> FakeWebhookController.data, 5000);
+
+        assertThat(receivedData, containsString(execution.getId()));
+        assertThat(receivedData, containsString("https://mysuperhost.com/kestra/ui"));
+        assertThat(receivedData, containsString("{\"title\":\"Env\",\"value\":\"DEV\",\"short\":true}"));
+        assertThat(receivedData, containsString("myCustomMessage"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void allFailedShouldSucceedWhenOneChannelSucceeds() throws Exception {
+        Execution notification = runAndWaitForNotification("multichannel");
+
+        TaskRun taskRun = notification.findTaskRunsByTaskId("multichannel").getFirst();
+        assertThat(taskRun.getState().getCurrent(), is(State.Type.SUCCESS));
+        assertThat(notification.getState().getCurrent(), is(State.Type.SUCCESS));
+
+        List<Map<String, Object>> channels = (List<Map<String, Object>>) taskRun.getOutputs().get("channels");
+        assertThat(channels, hasSize(2));
+        assertThat(channels.get(0).get("id"), is("slack"));
+        assertThat(channels.get(0).get("state"), is("SUCCESS"));
+        assertThat(channels.get(1).get("id"), is("unreachable"));
+        assertThat(channels.get(1).get("state"), is("FAILED"));
+        assertThat(channels.get(1).get("error"), notNullValue());
+    }
+
+    @Test
+    void anyFailedShouldFailWhenOneChannelFails() throws Exception {
+        Execution notification = runAndWaitForNotification("multichannel-any-failed");
+
+        TaskRun taskRun = notification.findTaskRunsByTaskId("multichannel").getFirst();
+        assertThat(taskRun.getState().getCurrent(), is(State.Type.FAILED));
+        assertThat(notification.getState().getCurrent(), is(State.Type.FAILED));
+
+        // every channel is still sent before the policy fails the task
+        String receivedData = waitForWebhookData(() -> FakeWebhookController.data, 5000);
+        assertThat(receivedData, containsString("myCustomMessage"));
+    }
+
+    /**
+     * Run the failing flow and wait for the given notification flow to terminate.
+     */
+    private Execution runAndWaitForNotification(String notificationFlowId) throws Exception {
+        CountDownLatch terminated = new CountDownLatch(1);
+        AtomicReference<Execution> last = new AtomicReference<>();
+
+        Flux<Execution> receive = TestsUtils.receive(executionQueue, execution -> {
+            if (execution.getLeft().getFlowId().equals(notificationFlowId) && execution.getLeft().getState().isTerminated()) {
+                last.set(execution.getLeft());
+                terminated.countDown();
+            }
+        });
+
+        runnerUtils.runOne(MAIN_TENANT, "io.kestra.tests", "main-flow-that-fails");
+
+        assertThat(terminated.await(30, TimeUnit.SECONDS), is(true));
+        receive.blockLast();
+
+        return last.get();
+    }
+}
@@ -0,0 +1,116 @@
+package io.kestra.plugin.notifications.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import jakarta.inject.Inject;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.simplejavamail.api.mailer.config.TransportStrategy;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class MailSendBatchTest {
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void recipients() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        MailSendBatch task = MailSendBatch.builder()
+            .host(Property.ofValue("localhost"))
+            .port(Property.ofValue(greenMail.getSmtp().getPort()))
+            .transportStrategy(Property.ofValue(TransportStrategy.SMTP))
+            .from(Property.ofValue("from@mail.com"))
+            .recipients(Property.ofValue(List.of("alice@mail.com", "bob@mail.com", "carol@mail.com")))
+            .subject(Property.ofExpression("Hello {{ row.to }}"))
+            .plainTextContent(Property.ofValue("Maintenance planned tonight"))
+            .concurrency(Property.ofValue(2))
+            .build();
+
+        MailSendBatch.Output output = task.run(runContext);
+
+        assertThat(output.getTotal(), is(3L));
+        assertThat(output.getSent(), is(3L));
+        assertThat(output.getFailed(), is(0L));
+
+        MimeMessage[] receivedMessages = greenMail.getReceivedMessages();
+        assertThat(receivedMessages.length, is(3));
+        assertThat(
+            Arrays.stream(receivedMessages).map(this::subject).toList(),
+            containsInAnyOrder("Hello alice@mail.com", "Hello bob@mail.com", "Hello carol@mail.com")
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rows() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        File rowsFile = runContext.workingDir().createTempFile(".ion").toFile();
+        try (OutputStream outputStream = new FileOutputStream(rowsFile)) {
+            FileSerde.write(outputStream, Map.of("to", "alice@mail.com", "name", "Alice"));
+            FileSerde.write(outputStream, Map.of("to", "bob@mail.com", "name", "Bob", "subject", "Custom subject"));
+            FileSerde.write(outputStream, Map.of("name", "Nobody"));
+        }
+
+        MailSendBatch task = MailSendBatch.builder()
+            .host(Property.ofValue("localhost"))
+            .port(Property.ofValue(greenMail.getSmtp().getPort()))
+            .transportStrategy(Property.ofValue(TransportStrategy.SMTP))
+            .from(Property.ofValue("from@mail.com"))
+            .rows(Property.ofValue(runContext.storage().putFile(rowsFile).toString()))
+            .subject(Property.ofExpression("Your report, {{ row.name }}"))
+            .plainTextContent(Property.ofExpression("Hello {{ row.name }}"))
+            .build();
+
+        MailSendBatch.Output output = task.run(runContext);
+
+        assertThat(output.getTotal(), is(3L));
+        assertThat(output.getSent(), is(2L));
+        assertThat(output.getFailed(), is(1L));
+        assertThat(output.getThroughput(), greaterThan(0D));
+
+        MimeMessage[] receivedMessages = greenMail.getReceivedMessages();
+        assertThat(
+            Arrays.stream(receivedMessages).map(this::subject).toList(),
+            containsInAnyOrder("Your report, Alice", "Custom subject")
+        );
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri()), StandardCharsets.UTF_8))) {
+            List<Map<String, Object>> statuses = FileSerde.readAll(reader).map(row -> (Map<String, Object>) row).collectList().block();
+
+            assertThat(statuses, hasSize(3));
+            assertThat(statuses.get(0).get("to"), is("alice@mail.com"));
+            assertThat(statuses.get(0).get("state"), is("SENT"));
+            assertThat(statuses.get(1).get("state"), is("SENT"));
+            assertThat(statuses.get(2).get("state"), is("FAILED"));
+            assertThat((String) statuses.get(2).get("error"), containsString("no 'to' column"));
+        }
+    }
+
+    private String subject(MimeMessage message) {
+        try {
+            return message.getSubject();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -263,6 +263,40 @@ public class MailSendTest {
             is(IOUtils.toString(storageInterface.get(MAIN_TENANT, null, putDataset), StandardCharsets.UTF_8)));
     }
 
+    @Test
+    @DisplayName("Fail before sending when an attachment exceeds the maximum size")
+    void attachmentTooLarge() throws Exception {
+        RunContext runContext = getRunContext();
+
+        URL res = MailSendTest.class.getClassLoader().getResource("kestra.png");
+        URI putImage = storageInterface.put(
+            MAIN_TENANT,
+            null,
+            new URI("/file/storage/too-large.png"),
+            new FileInputStream(Objects.requireNonNull(res).getFile())
+        );
+
+        MailSend mailSend = MailSend.builder()
+            .host(Property.ofValue("localhost"))
+            .port(Property.ofValue(greenMail.getSmtp().getPort()))
+            .from(Property.ofValue(FROM))
+            .to(Property.ofValue(TO))
+            .subject(Property.ofValue(SUBJECT))
+            .transportStrategy(Property.ofValue(TransportStrategy.SMTP))
+            .attachments(Property.ofValue(List.of(Map.of(
+                "name", "kestra.png",
+                "uri", putImage.toString(),
+                "contentType", "image/png"
+            ))))
+            .maxAttachmentSize(Property.ofValue(10L))
+            .build();
+
+        IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class, () -> mailSend.run(runContext));
+
+        assertThat(exception.getMessage(), containsString("exceeds the maximum attachment size of 10 bytes"));
+        assertThat(greenMail.getReceivedMessages().length, is(0));
+    }
+
     @Test
     @DisplayName("Send email with SSL trust configuration")
     void sendEmailWithSslTrustConfig() throws Exception {
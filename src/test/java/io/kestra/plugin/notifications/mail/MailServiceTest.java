@@ -0,0 +1,254 @@
+package io.kestra.plugin.notifications.mail;
+
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import jakarta.inject.Inject;
+import jakarta.mail.Message;
+import jakarta.mail.Part;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import jakarta.mail.search.AndTerm;
+import jakarta.mail.search.FromStringTerm;
+import jakarta.mail.search.ReceivedDateTerm;
+import jakarta.mail.search.SentDateTerm;
+import jakarta.mail.search.SubjectTerm;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class MailServiceTest extends AbstractTriggerTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private final MailService.MailConfiguration imapConfig = MailService.MailConfiguration.builder()
+        .protocol("IMAP")
+        .host("127.0.0.1")
+        .port(3144)
+        .username("test@localhost")
+        .password("password")
+        .folder("INBOX")
+        .ssl(false)
+        .trustAllCertificates(true)
+        .interval(Duration.ofSeconds(1))
+        .build();
+
+    @Test
+    void fetchNewEmailsByUidShouldNotMissBursts() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        for (int i = 0; i < 15; i++) {
+            sendTestEmail("First burst " + i, "sender@example.com", "body " + i);
+        }
+
+        MailService.UidFetchResult first = MailService.fetchNewEmailsByUid(runContext, imapConfig, null, ZonedDateTime.now().minusMinutes(1));
+        assertThat(first.emails(), hasSize(15));
+        assertThat(first.checkpoint().lastUid(), greaterThan(0L));
+
+        for (int i = 0; i < 12; i++) {
+            sendTestEmail("Second burst " + i, "sender@example.com", "body " + i);
+        }
+
+        MailService.UidFetchResult second = MailService.fetchNewEmailsByUid(runContext, imapConfig, first.checkpoint(), ZonedDateTime.now());
+        assertThat(second.emails(), hasSize(12));
+        assertThat(second.emails().stream().map(MailService.EmailData::getSubject).toList(), everyItem(startsWith("Second burst")));
+        assertThat(second.checkpoint().lastUid(), is(first.checkpoint().lastUid() + 12));
+
+        MailService.UidFetchResult third = MailService.fetchNewEmailsByUid(runContext, imapConfig, second.checkpoint(), ZonedDateTime.now());
+        assertThat(third.emails(), empty());
+        assertThat(third.checkpoint(), is(second.checkpoint()));
+    }
+
+    @Test
+    void fetchNewEmailsByUidShouldResetOnUidValidityChange() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        sendTestEmail("Old email", "sender@example.com", "body");
+
+        MailService.UidFetchResult first = MailService.fetchNewEmailsByUid(runContext, imapConfig, null, ZonedDateTime.now().minusMinutes(1));
+        MailService.UidCheckpoint stale = new MailService.UidCheckpoint(
+            first.checkpoint().mailbox(),
+            first.checkpoint().uidValidity() + 1,
+            first.checkpoint().lastUid()
+        );
+
+        MailService.UidFetchResult result = MailService.fetchNewEmailsByUid(runContext, imapConfig, stale, ZonedDateTime.now().plusMinutes(1));
+
+        assertThat(result.emails(), empty());
+        assertThat(result.checkpoint(), is(first.checkpoint()));
+    }
+
+    @Test
+    void fetchNewEmailsByUidShouldFilterOnServer() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        MailService.MailConfiguration config = MailService.MailConfiguration.builder()
+            .protocol("IMAP")
+            .host("127.0.0.1")
+            .port(3144)
+            .username("test@localhost")
+            .password("password")
+            .folder("INBOX")
+            .ssl(false)
+            .trustAllCertificates(true)
+            .searchTerm(new AndTerm(new FromStringTerm("billing@example.com"), new SubjectTerm("invoice")))
+            .build();
+
+        sendTestEmail("Invoice 1", "billing@example.com", "body");
+        sendTestEmail("Newsletter", "billing@example.com", "body");
+
+        MailService.UidFetchResult first = MailService.fetchNewEmailsByUid(runContext, config, null, ZonedDateTime.now().minusMinutes(1));
+        assertThat(first.emails().stream().map(MailService.EmailData::getSubject).toList(), contains("Invoice 1"));
+
+        sendTestEmail("Invoice 2", "other@example.com", "body");
+        sendTestEmail("Invoice 3", "billing@example.com", "body");
+
+        MailService.UidFetchResult second = MailService.fetchNewEmailsByUid(runContext, config, first.checkpoint(), ZonedDateTime.now());
+        assertThat(second.emails().stream().map(MailService.EmailData::getSubject).toList(), contains("Invoice 3"));
+        assertThat(second.checkpoint().lastUid(), is(first.checkpoint().lastUid() + 2));
+    }
+
+    @Test
+    void filterShouldRenderOnceAndUseSentDateOnPop3() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        AbstractMailTrigger.Filter filter = AbstractMailTrigger.Filter.builder()
+            .subject(Property.ofExpression("{{ 'invoice' }}"))
+            .since(Property.ofValue(ZonedDateTime.now().minusDays(1)))
+            .build();
+
+        AndTerm imap = (AndTerm) filter.toSearchTerm(runContext, MailService.Protocol.IMAP);
+        assertThat(((SubjectTerm) imap.getTerms()[0]).getPattern(), is("invoice"));
+        assertThat(imap.getTerms()[1], instanceOf(ReceivedDateTerm.class));
+
+        AndTerm pop3 = (AndTerm) filter.toSearchTerm(runContext, MailService.Protocol.POP3);
+        assertThat(pop3.getTerms()[1], instanceOf(SentDateTerm.class));
+    }
+
+    @Test
+    void fetchNewEmailsByUidlShouldOnlyReturnUnseenMessages() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        MailService.MailConfiguration pop3Config = MailService.MailConfiguration.builder()
+            .protocol("POP3")
+            .host("127.0.0.1")
+            .port(3145)
+            .username("test@localhost")
+            .password("password")
+            .folder("INBOX")
+            .ssl(false)
+            .trustAllCertificates(true)
+            .includeBody(false)
+            .build();
+
+        sendTestEmail("First email", "sender@example.com", "body");
+
+        MailService.UidlFetchResult first = MailService.fetchNewEmailsByUidl(runContext, pop3Config, null, ZonedDateTime.now().minusMinutes(1));
+        assertThat(first.emails(), hasSize(1));
+        assertThat(first.emails().getFirst().getBody(), nullValue());
+        assertThat(first.checkpoint().uidls(), hasSize(1));
+
+        for (int i = 0; i < 12; i++) {
+            sendTestEmail("Burst " + i, "sender@example.com", "body " + i);
+        }
+
+        MailService.UidlFetchResult second = MailService.fetchNewEmailsByUidl(runContext, pop3Config, first.checkpoint(), ZonedDateTime.now());
+        assertThat(second.emails(), hasSize(12));
+        assertThat(second.emails().stream().map(MailService.EmailData::getSubject).toList(), everyItem(startsWith("Burst")));
+
+        MailService.UidlFetchResult third = MailService.fetchNewEmailsByUidl(runContext, pop3Config, second.checkpoint(), ZonedDateTime.now());
+        assertThat(third.emails(), empty());
+        assertThat(third.checkpoint(), is(second.checkpoint()));
+    }
+
+    @Test
+    void fetchNewEmailsWithoutBody() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        sendTestEmail("Headers only", "sender@example.com", "A body that is not downloaded");
+
+        MailService.MailConfiguration config = MailService.MailConfiguration.builder()
+            .protocol("IMAP")
+            .host("127.0.0.1")
+            .port(3144)
+            .username("test@localhost")
+            .password("password")
+            .folder("INBOX")
+            .ssl(false)
+            .trustAllCertificates(true)
+            .includeBody(false)
+            .build();
+
+        List<MailService.EmailData> emails = MailService.fetchNewEmails(runContext, config, ZonedDateTime.now().minusMinutes(1));
+
+        assertThat(emails, hasSize(1));
+        assertThat(emails.getFirst().getSubject(), is("Headers only"));
+        assertThat(emails.getFirst().getFrom(), is("sender@example.com"));
+        assertThat(emails.getFirst().getBody(), nullValue());
+        assertThat(emails.getFirst().getAttachments(), empty());
+    }
+
+    @Test
+    void fetchNewEmailsShouldStreamAttachmentsAndLargeBodiesToStorage() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        MimeMessage message = new MimeMessage(Session.getDefaultInstance(new Properties()));
+        message.setFrom(new InternetAddress("sender@example.com"));
+        message.addRecipient(Message.RecipientType.TO, new InternetAddress("test@localhost"));
+        message.setSubject("With attachment");
+
+        MimeBodyPart text = new MimeBodyPart();
+        text.setText("A body too large to be inlined");
+        MimeBodyPart attachment = new MimeBodyPart();
+        attachment.setContent("id,name\n1,kestra\n", "text/csv");
+        attachment.setFileName("data.csv");
+        attachment.setDisposition(Part.ATTACHMENT);
+        message.setContent(new MimeMultipart(text, attachment));
+        message.saveChanges();
+        greenMail.getUserManager().getUser("test@localhost").deliver(message);
+
+        MailService.MailConfiguration config = MailService.MailConfiguration.builder()
+            .protocol("IMAP")
+            .host("127.0.0.1")
+            .port(3144)
+            .username("test@localhost")
+            .password("password")
+            .folder("INBOX")
+            .ssl(false)
+            .trustAllCertificates(true)
+            .storeAttachments(true)
+            .maxInlineBodySize(10)
+            .build();
+
+        List<MailService.EmailData> emails = MailService.fetchNewEmails(runContext, config, ZonedDateTime.now().minusMinutes(1));
+
+        assertThat(emails, hasSize(1));
+        MailService.EmailData email = emails.getFirst();
+
+        assertThat(email.getBody(), nullValue());
+        assertThat(read(runContext, email.getBodyUri()), is("A body too large to be inlined"));
+
+        assertThat(email.getAttachments(), hasSize(1));
+        assertThat(email.getAttachments().getFirst().getFilename(), is("data.csv"));
+        assertThat(read(runContext, email.getAttachments().getFirst().getUri()).replace("\r", ""), is("id,name\n1,kestra\n"));
+    }
+
+    private String read(RunContext runContext, URI uri) throws Exception {
+        try (InputStream inputStream = runContext.storage().getFile(uri)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
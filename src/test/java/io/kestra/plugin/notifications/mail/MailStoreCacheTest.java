@@ -0,0 +1,103 @@
+package io.kestra.plugin.notifications.mail;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import jakarta.inject.Inject;
+import jakarta.mail.Folder;
+import jakarta.mail.Store;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailStoreCacheTest extends AbstractTriggerTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private static final MailService.MailConfiguration CONFIG = MailService.MailConfiguration.builder()
+        .protocol("IMAP")
+        .host("127.0.0.1")
+        .port(3144)
+        .username("test@localhost")
+        .password("password")
+        .folder("INBOX")
+        .ssl(false)
+        .trustAllCertificates(true)
+        .build();
+
+    @Test
+    void shouldReuseStoreAndFolderBetweenPolls() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        Store store;
+        Folder folder;
+        try (MailStoreCache.Lease lease = MailStoreCache.acquire(runContext, CONFIG)) {
+            store = lease.getStore();
+            folder = lease.folder("INBOX");
+        }
+
+        try (MailStoreCache.Lease lease = MailStoreCache.acquire(runContext, CONFIG)) {
+            assertThat(lease.getStore()).isSameAs(store);
+            assertThat(lease.folder("INBOX")).isSameAs(folder);
+            assertThat(folder.isOpen()).isTrue();
+        }
+    }
+
+    @Test
+    void shouldNotShareLeasedStore() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        try (
+            MailStoreCache.Lease first = MailStoreCache.acquire(runContext, CONFIG);
+            MailStoreCache.Lease second = MailStoreCache.acquire(runContext, CONFIG)
+        ) {
+            assertThat(first.getStore()).isNotSameAs(second.getStore());
+        }
+    }
+
+    @Test
+    void shouldReconnectInvalidatedStore() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        Store store;
+        try (MailStoreCache.Lease lease = MailStoreCache.acquire(runContext, CONFIG)) {
+            store = lease.getStore();
+            lease.invalidate();
+        }
+
+        assertThat(store.isConnected()).isFalse();
+
+        try (MailStoreCache.Lease lease = MailStoreCache.acquire(runContext, CONFIG)) {
+            assertThat(lease.getStore()).isNotSameAs(store);
+            assertThat(lease.getStore().isConnected()).isTrue();
+        }
+    }
+
+    @Test
+    void shouldCloseReleasedPop3Store() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        MailService.MailConfiguration pop3 = MailService.MailConfiguration.builder()
+            .protocol("POP3")
+            .host("127.0.0.1")
+            .port(3145)
+            .username("test@localhost")
+            .password("password")
+            .folder("INBOX")
+            .ssl(false)
+            .trustAllCertificates(true)
+            .build();
+
+        Store store;
+        try (MailStoreCache.Lease lease = MailStoreCache.acquire(runContext, pop3)) {
+            store = lease.getStore();
+        }
+
+        assertThat(store.isConnected()).isFalse();
+
+        try (MailStoreCache.Lease lease = MailStoreCache.acquire(runContext, pop3)) {
+            assertThat(lease.getStore()).isNotSameAs(store);
+        }
+    }
+}
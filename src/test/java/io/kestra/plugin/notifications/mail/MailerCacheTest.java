@@ -0,0 +1,86 @@
+package io.kestra.plugin.notifications.mail;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.simplejavamail.api.mailer.config.TransportStrategy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@KestraTest
+class MailerCacheTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private static MailerCache.Key key(int port) {
+        return new MailerCache.Key(
+            "localhost",
+            port,
+            "user",
+            "secret",
+            TransportStrategy.SMTP,
+            10000,
+            true,
+            List.of(),
+            0,
+            4,
+            Duration.ofMinutes(1),
+            Duration.ofSeconds(30)
+        );
+    }
+
+    @Test
+    void shouldReuseMailerForSameServer() {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        try (
+            MailerCache.Lease first = MailerCache.acquire(runContext, key(3025));
+            MailerCache.Lease second = MailerCache.acquire(runContext, key(3025))
+        ) {
+            assertThat(first.getMailer()).isSameAs(second.getMailer());
+        }
+    }
+
+    @Test
+    void shouldNotShareMailerAcrossServers() {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        try (
+            MailerCache.Lease first = MailerCache.acquire(runContext, key(3025));
+            MailerCache.Lease second = MailerCache.acquire(runContext, key(3465))
+        ) {
+            assertThat(first.getMailer()).isNotSameAs(second.getMailer());
+        }
+    }
+
+    @Test
+    void shouldReportActiveAndIdleMailers() {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        try (MailerCache.Lease lease = MailerCache.acquire(runContext, key(3587))) {
+            assertThat(gauge(runContext, "smtp.mailer.active")).isGreaterThanOrEqualTo(1.0);
+        }
+
+        // the released mailer stays cached until its eviction
+        assertThat(gauge(runContext, "smtp.mailer.idle")).isGreaterThanOrEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotLogPassword() {
+        assertThat(key(3025).toString()).doesNotContain("secret");
+    }
+
+    private static double gauge(RunContext runContext, String name) {
+        return runContext.metrics().stream()
+            .filter(metric -> metric.getName().equals(name))
+            .map(metric -> ((Number) metric.getValue()).doubleValue())
+            .reduce((first, last) -> last)
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,76 @@
+package io.kestra.plugin.notifications.mail;
+
+import com.icegreen.greenmail.user.GreenMailUser;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.Trigger;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.TestsUtils;
+import jakarta.inject.Inject;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class MultiMailboxReceivedTriggerTest extends AbstractTriggerTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldScanEveryFolder() throws Exception {
+        GreenMailUser user = greenMail.getUserManager().getUser("test@localhost");
+        var support = greenMail.getManagers().getImapHostManager().createMailbox(user, "Support");
+
+        sendTestEmail("Inbox email", "sender@example.com", "body");
+        support.store(message("Support email"));
+
+        MultiMailboxReceivedTrigger trigger = MultiMailboxReceivedTrigger.builder()
+            .id("multi-mailbox-trigger")
+            .type(MultiMailboxReceivedTrigger.class.getName())
+            .host(Property.ofValue("127.0.0.1"))
+            .port(Property.ofValue(3144))
+            .username(Property.ofValue("test@localhost"))
+            .password(Property.ofValue("password"))
+            .ssl(Property.ofValue(false))
+            .trustAllCertificates(Property.ofValue(true))
+            .interval(Property.ofValue(Duration.ofMinutes(1)))
+            .folders(Property.ofValue(List.of("INBOX", "Support")))
+            .build();
+
+        Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+        Optional<Execution> execution = trigger.evaluate(context.getKey(), context.getValue());
+
+        assertThat(execution.isPresent(), is(true));
+
+        Map<String, Object> variables = execution.get().getTrigger().getVariables();
+        assertThat(variables.get("total"), is(2));
+
+        List<Map<String, Object>> emails = (List<Map<String, Object>>) variables.get("emails");
+        assertThat(emails.stream().map(email -> email.get("folder") + ":" + email.get("subject")).toList(),
+            containsInAnyOrder("INBOX:Inbox email", "Support:Support email"));
+        assertThat(emails.stream().map(email -> email.get("mailbox")).toList(), everyItem(is("test@localhost")));
+    }
+
+    private MimeMessage message(String subject) throws Exception {
+        MimeMessage message = new MimeMessage(Session.getDefaultInstance(new Properties()));
+        message.setFrom(new InternetAddress("sender@example.com"));
+        message.addRecipient(Message.RecipientType.TO, new InternetAddress("test@localhost"));
+        message.setSubject(subject);
+        message.setText("body");
+        message.saveChanges();
+
+        return message;
+    }
+}
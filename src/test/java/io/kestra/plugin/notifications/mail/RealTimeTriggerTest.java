@@ -1,24 +1,40 @@
 package io.kestra.plugin.notifications.mail;
 
+import com.icegreen.greenmail.imap.ImapHostManager;
+import com.icegreen.greenmail.store.MailFolder;
+import com.icegreen.greenmail.user.GreenMailUser;
+import io.kestra.core.models.conditions.ConditionContext;
 import io.kestra.core.models.executions.Execution;
 import io.kestra.core.models.flows.Flow;
 import io.kestra.core.models.flows.FlowWithSource;
 import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.Trigger;
 import io.kestra.core.runners.FlowListeners;
+import io.kestra.core.runners.RunContextFactory;
 import io.kestra.core.utils.Await;
+import io.kestra.core.utils.IdUtils;
 import io.kestra.core.utils.TestsUtils;
 import io.kestra.plugin.core.debug.Return;
+import jakarta.inject.Inject;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -26,6 +42,8 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
 
 class RealTimeTriggerTest extends AbstractTriggerTest {
+    @Inject
+    private RunContextFactory runContextFactory;
 
     @Test
     void RealTimeTriggerWithPop3() throws Exception {
@@ -180,4 +198,210 @@ class RealTimeTriggerTest extends AbstractTriggerTest {
             receive.blockLast();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldEmitBurstOnceWhenBufferSpills() throws Exception {
+        RealTimeTrigger trigger = imapTrigger("imap-spill-trigger-" + IdUtils.create(), "INBOX", RealTimeTrigger.OverflowPolicy.SPILL);
+        List<String> subjects = new CopyOnWriteArrayList<>();
+
+        Disposable subscription = subscribe(trigger, subjects);
+        try {
+            Thread.sleep(Duration.ofSeconds(2).toMillis());
+
+            List<String> burst = IntStream.range(0, 20).mapToObj(i -> "Spilled email " + i).toList();
+            for (String subject : burst) {
+                sendTestEmail(subject, "sender@example.com", "body");
+            }
+
+            Await.until(() -> subjects.size() >= burst.size(), Duration.ofMillis(100), Duration.ofSeconds(30));
+            Thread.sleep(Duration.ofSeconds(1).toMillis());
+
+            // left on the server while the buffer was full, then queued again in UID order
+            assertThat(subjects, contains(burst.toArray()));
+        } finally {
+            subscription.dispose();
+            trigger.stop();
+        }
+    }
+
+    @Test
+    void shouldEmitBurstOnceWhenBufferBlocks() throws Exception {
+        RealTimeTrigger trigger = imapTrigger("imap-block-trigger-" + IdUtils.create(), "INBOX", RealTimeTrigger.OverflowPolicy.BLOCK);
+        List<String> subjects = new CopyOnWriteArrayList<>();
+
+        Disposable subscription = subscribe(trigger, subjects);
+        try {
+            Thread.sleep(Duration.ofSeconds(2).toMillis());
+
+            List<String> burst = IntStream.range(0, 20).mapToObj(i -> "Blocked email " + i).toList();
+            for (String subject : burst) {
+                sendTestEmail(subject, "sender@example.com", "body");
+            }
+
+            Await.until(() -> subjects.size() >= burst.size(), Duration.ofMillis(100), Duration.ofSeconds(30));
+            Thread.sleep(Duration.ofSeconds(1).toMillis());
+
+            assertThat(subjects, contains(burst.toArray()));
+        } finally {
+            subscription.dispose();
+            trigger.stop();
+        }
+    }
+
+    @Test
+    void shouldReplayEmailsReceivedWhileStoppedOnce() throws Exception {
+        String id = "imap-restart-trigger-" + IdUtils.create();
+        List<String> subjects = new CopyOnWriteArrayList<>();
+
+        RealTimeTrigger trigger = imapTrigger(id, "INBOX", RealTimeTrigger.OverflowPolicy.BLOCK);
+        Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        Disposable subscription = subscribe(trigger, context, subjects);
+        try {
+            Thread.sleep(Duration.ofSeconds(2).toMillis());
+
+            sendTestEmail("Before restart", "sender@example.com", "body");
+            Await.until(() -> subjects.size() == 1, Duration.ofMillis(100), Duration.ofSeconds(10));
+        } finally {
+            subscription.dispose();
+            trigger.stop();
+        }
+
+        // received while no trigger is running, only the persisted checkpoint knows where to start from
+        sendTestEmail("While stopped 1", "sender@example.com", "body");
+        sendTestEmail("While stopped 2", "sender@example.com", "body");
+
+        RealTimeTrigger restarted = imapTrigger(id, "INBOX", RealTimeTrigger.OverflowPolicy.BLOCK);
+        subscription = subscribe(restarted, context, subjects);
+        try {
+            Await.until(() -> subjects.size() >= 3, Duration.ofMillis(100), Duration.ofSeconds(30));
+
+            sendTestEmail("After restart", "sender@example.com", "body");
+            Await.until(() -> subjects.size() >= 4, Duration.ofMillis(100), Duration.ofSeconds(10));
+            Thread.sleep(Duration.ofSeconds(1).toMillis());
+
+            assertThat(subjects, contains("Before restart", "While stopped 1", "While stopped 2", "After restart"));
+        } finally {
+            subscription.dispose();
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void shouldReconnectWhenServerRestarts() throws Exception {
+        RealTimeTrigger trigger = imapTrigger("imap-reconnect-trigger-" + IdUtils.create(), "INBOX", RealTimeTrigger.OverflowPolicy.BLOCK);
+        List<String> subjects = new CopyOnWriteArrayList<>();
+
+        Disposable subscription = subscribe(trigger, subjects);
+        try {
+            Thread.sleep(Duration.ofSeconds(2).toMillis());
+
+            sendTestEmail("Before outage", "sender@example.com", "body");
+            Await.until(() -> subjects.size() == 1, Duration.ofMillis(100), Duration.ofSeconds(10));
+
+            // drops the IDLE connection, the trigger reconnects with its backoff
+            greenMail.stop();
+            greenMail.start();
+            greenMail.setUser("test@localhost", "password");
+
+            Thread.sleep(Duration.ofSeconds(5).toMillis());
+
+            sendTestEmail("After outage", "sender@example.com", "body");
+            Await.until(() -> subjects.size() >= 2, Duration.ofMillis(100), Duration.ofSeconds(30));
+            Thread.sleep(Duration.ofSeconds(1).toMillis());
+
+            assertThat(subjects, contains("Before outage", "After outage"));
+        } finally {
+            subscription.dispose();
+            trigger.stop();
+        }
+    }
+
+    @Test
+    void shouldOnlyEmitNewEmailsAfterUidValidityReset() throws Exception {
+        GreenMailUser user = greenMail.getUserManager().getUser("test@localhost");
+        ImapHostManager imapHostManager = greenMail.getManagers().getImapHostManager();
+        String folder = "Reset" + IdUtils.create();
+        MailFolder mailFolder = imapHostManager.createMailbox(user, folder);
+
+        String id = "imap-uid-validity-trigger-" + IdUtils.create();
+        List<String> subjects = new CopyOnWriteArrayList<>();
+
+        RealTimeTrigger trigger = imapTrigger(id, folder, RealTimeTrigger.OverflowPolicy.BLOCK);
+        Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        Disposable subscription = subscribe(trigger, context, subjects);
+        try {
+            Thread.sleep(Duration.ofSeconds(2).toMillis());
+
+            mailFolder.store(message("Before reset"));
+            Await.until(() -> subjects.size() == 1, Duration.ofMillis(100), Duration.ofSeconds(10));
+        } finally {
+            subscription.dispose();
+            trigger.stop();
+        }
+
+        // the folder is recreated with a new UIDVALIDITY while stopped, the UIDs of the persisted checkpoint mean nothing anymore
+        imapHostManager.deleteMailbox(user, folder);
+        mailFolder = imapHostManager.createMailbox(user, folder);
+        mailFolder.store(message("Stored before restart"));
+
+        RealTimeTrigger restarted = imapTrigger(id, folder, RealTimeTrigger.OverflowPolicy.BLOCK);
+        subscription = subscribe(restarted, context, subjects);
+        try {
+            Thread.sleep(Duration.ofSeconds(3).toMillis());
+
+            mailFolder.store(message("After reset"));
+            Await.until(() -> subjects.size() >= 2, Duration.ofMillis(100), Duration.ofSeconds(10));
+            Thread.sleep(Duration.ofSeconds(1).toMillis());
+
+            assertThat(subjects, contains("Before reset", "After reset"));
+        } finally {
+            subscription.dispose();
+            restarted.stop();
+        }
+    }
+
+    private MimeMessage message(String subject) throws Exception {
+        MimeMessage message = new MimeMessage(Session.getDefaultInstance(new Properties()));
+        message.setFrom(new InternetAddress("sender@example.com"));
+        message.addRecipient(Message.RecipientType.TO, new InternetAddress("test@localhost"));
+        message.setSubject(subject);
+        message.setText("body");
+        message.saveChanges();
+
+        return message;
+    }
+
+    private RealTimeTrigger imapTrigger(String id, String folder, RealTimeTrigger.OverflowPolicy overflowPolicy) {
+        return RealTimeTrigger.builder()
+            .id(id)
+            .type(RealTimeTrigger.class.getName())
+            .protocol(Property.ofValue(MailService.Protocol.IMAP))
+            .host(Property.ofValue("127.0.0.1"))
+            .port(Property.ofValue(3144))
+            .username(Property.ofValue("test@localhost"))
+            .password(Property.ofValue("password"))
+            .folder(Property.ofValue(folder))
+            .ssl(Property.ofValue(false))
+            .trustAllCertificates(Property.ofValue(true))
+            .interval(Property.ofValue(Duration.ofSeconds(1)))
+            // smaller than the bursts of the tests, so that the overflow policy kicks in
+            .bufferSize(Property.ofValue(2))
+            .parsingConcurrency(Property.ofValue(1))
+            .overflowPolicy(Property.ofValue(overflowPolicy))
+            .build();
+    }
+
+    private Disposable subscribe(RealTimeTrigger trigger, List<String> subjects) throws Exception {
+        return subscribe(trigger, TestsUtils.mockTrigger(runContextFactory, trigger), subjects);
+    }
+
+    /**
+     * Subscribe with the given context, so that a restarted trigger reads the state persisted by the previous one.
+     */
+    private Disposable subscribe(RealTimeTrigger trigger, Map.Entry<ConditionContext, Trigger> context, List<String> subjects) throws Exception {
+        return Flux.from(trigger.evaluate(context.getKey(), context.getValue()))
+            .subscribe(execution -> subjects.add((String) execution.getTrigger().getVariables().get("subject")));
+    }
+}
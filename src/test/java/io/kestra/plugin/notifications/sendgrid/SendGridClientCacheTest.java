@@ -0,0 +1,106 @@
+package io.kestra.plugin.notifications.sendgrid;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.AbstractMetricEntry;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@KestraTest
+class SendGridClientCacheTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void shouldReuseClientForSameApiKey() {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        try (
+            SendGridClientCache.Lease first = SendGridClientCache.acquire(runContext, "first-key");
+            SendGridClientCache.Lease second = SendGridClientCache.acquire(runContext, "first-key")
+        ) {
+            assertThat(first.getSendGrid()).isSameAs(second.getSendGrid());
+        }
+    }
+
+    @Test
+    void shouldNotShareClientAcrossApiKeys() {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        try (
+            SendGridClientCache.Lease first = SendGridClientCache.acquire(runContext, "first-key");
+            SendGridClientCache.Lease second = SendGridClientCache.acquire(runContext, "second-key")
+        ) {
+            assertThat(first.getSendGrid()).isNotSameAs(second.getSendGrid());
+        }
+    }
+
+    @Test
+    void shouldEvictIdleClient() {
+        SendGridClientCache.Lease idle = SendGridClientCache.acquire(runContextFactory.of(Map.of()), "idle-key");
+        idle.close();
+
+        elapse(Duration.ofMinutes(10));
+
+        RunContext runContext = runContextFactory.of(Map.of());
+        try (SendGridClientCache.Lease recreated = SendGridClientCache.acquire(runContext, "idle-key")) {
+            assertThat(recreated.getSendGrid()).isNotSameAs(idle.getSendGrid());
+            assertThat(counters(runContext)).containsExactly("sendgrid.client.created");
+        }
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedClientAboveMaxClients() {
+        for (int i = 0; i < 33; i++) {
+            SendGridClientCache.acquire(runContextFactory.of(Map.of()), "lru-key-" + i).close();
+        }
+
+        RunContext latest = runContextFactory.of(Map.of());
+        SendGridClientCache.acquire(latest, "lru-key-32").close();
+        assertThat(counters(latest)).containsExactly("sendgrid.client.reused");
+
+        RunContext oldest = runContextFactory.of(Map.of());
+        SendGridClientCache.acquire(oldest, "lru-key-0").close();
+        assertThat(counters(oldest)).containsExactly("sendgrid.client.created");
+    }
+
+    @Test
+    void shouldNeverCloseLeasedClient() {
+        try (SendGridClientCache.Lease leased = SendGridClientCache.acquire(runContextFactory.of(Map.of()), "leased-key")) {
+            for (int i = 0; i < 40; i++) {
+                SendGridClientCache.acquire(runContextFactory.of(Map.of()), "other-key-" + i).close();
+            }
+            elapse(Duration.ofMinutes(10));
+
+            RunContext runContext = runContextFactory.of(Map.of());
+            try (SendGridClientCache.Lease again = SendGridClientCache.acquire(runContext, "leased-key")) {
+                assertThat(again.getSendGrid()).isSameAs(leased.getSendGrid());
+                assertThat(counters(runContext)).containsExactly("sendgrid.client.reused");
+            }
+        }
+    }
+
+    @AfterEach
+    void resetTicker() {
+        SendGridClientCache.ticker = System::nanoTime;
+    }
+
+    private static void elapse(Duration duration) {
+        long offset = duration.toNanos();
+        SendGridClientCache.ticker = () -> System.nanoTime() + offset;
+    }
+
+    private static List<String> counters(RunContext runContext) {
+        return runContext.metrics().stream()
+            .map(AbstractMetricEntry::getName)
+            .toList();
+    }
+}
@@ -0,0 +1,80 @@
+package io.kestra.plugin.notifications.sendgrid;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@KestraTest
+class SendGridMailBodyEntityTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void shouldStreamAttachmentsAsBase64() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        byte[] content = "id,name\n1,kestra\n".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+        Path path = runContext.workingDir().createTempFile(".csv");
+        Files.write(path, content);
+        URI uri = runContext.storage().putFile(path.toFile());
+
+        Mail mail = new Mail(new Email("from@mail.com"), "Subject", new Email("to@mail.com"), new Content("text/plain", "body"));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new SendGridMailBodyEntity(runContext, mail, List.of(new SendGridMailBodyEntity.StoredAttachment("data.csv", "text/csv", "attachment", uri)))
+            .writeTo(outputStream);
+
+        JsonNode body = new ObjectMapper().readTree(outputStream.toByteArray());
+        JsonNode expected = new ObjectMapper().readTree(mail.build());
+
+        assertThat(body.get("from"), is(expected.get("from")));
+        assertThat(body.get("personalizations"), is(expected.get("personalizations")));
+        assertThat(body.get("content"), is(expected.get("content")));
+
+        JsonNode attachment = body.get("attachments").get(0);
+        assertThat(attachment.get("filename").asText(), is("data.csv"));
+        assertThat(attachment.get("type").asText(), is("text/csv"));
+        assertThat(attachment.get("disposition").asText(), is("attachment"));
+        assertThat(Base64.getDecoder().decode(attachment.get("content").asText()), is(content));
+    }
+
+    @Test
+    void shouldReadContentAsWritten() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        byte[] content = "id,name\n1,kestra\n".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+        Path path = runContext.workingDir().createTempFile(".csv");
+        Files.write(path, content);
+        URI uri = runContext.storage().putFile(path.toFile());
+
+        Mail mail = new Mail(new Email("from@mail.com"), "Subject", new Email("to@mail.com"), new Content("text/plain", "body"));
+        SendGridMailBodyEntity entity = new SendGridMailBodyEntity(runContext, mail, List.of(new SendGridMailBodyEntity.StoredAttachment("data.csv", "text/csv", "attachment", uri)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        entity.writeTo(outputStream);
+
+        try (InputStream inputStream = entity.getContent()) {
+            assertThat(inputStream.readAllBytes(), is(outputStream.toByteArray()));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package io.kestra.plugin.notifications.sendgrid;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class SendGridMailSendBatchTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "SENDGRID_API_KEY", matches = ".+")
+    void sendInChunks() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        SendGridMailSendBatch task = SendGridMailSendBatch.builder()
+            .sendgridApiKey(Property.ofValue(System.getenv("SENDGRID_API_KEY")))
+            .from(Property.ofValue("from@mail.com"))
+            .recipients(Property.ofValue(List.of("alice@mail.com", "bob@mail.com", "carol@mail.com")))
+            .subject(Property.ofValue("Hello -to-"))
+            .textContent(Property.ofValue("An email for -to-"))
+            .batchSize(Property.ofValue(2))
+            .build();
+
+        SendGridMailSendBatch.Output output = task.run(runContext);
+
+        assertThat(output.getTotal(), is(3L));
+        assertThat(output.getSent(), is(3L));
+        assertThat(output.getFailed(), is(0L));
+        assertThat(output.getFailures(), empty());
+    }
+
+    @Test
+    void packChunksWithSubstitutions() throws Exception {
+        List<JsonNode> bodies = new CopyOnWriteArrayList<>();
+
+        SendGridMailSendBatch.Output output = task(null).send(runContextFactory.of(Map.of()), (runContext, request) -> {
+            bodies.add(body(request));
+            return new Response(202, "", Map.of());
+        });
+
+        assertThat(output.getTotal(), is(3L));
+        assertThat(output.getSent(), is(3L));
+        assertThat(output.getFailures(), empty());
+
+        assertThat(bodies.stream().map(body -> body.get("personalizations").size()).toList(), contains(2, 1));
+        JsonNode alice = bodies.getFirst().get("personalizations").get(0);
+        assertThat(alice.get("to").get(0).get("email").asText(), is("alice@mail.com"));
+        assertThat(alice.get("substitutions").get("-to-").asText(), is("alice@mail.com"));
+        assertThat(bodies.getFirst().get("subject").asText(), is("Hello -to-"));
+    }
+
+    @Test
+    void passRowsAsDynamicTemplateData() throws Exception {
+        List<JsonNode> bodies = new CopyOnWriteArrayList<>();
+
+        task("d-0123456789abcdef0123456789abcdef").send(runContextFactory.of(Map.of()), (runContext, request) -> {
+            bodies.add(body(request));
+            return new Response(202, "", Map.of());
+        });
+
+        JsonNode carol = bodies.getLast().get("personalizations").get(0);
+        assertThat(carol.get("dynamic_template_data").get("to").asText(), is("carol@mail.com"));
+        assertThat(carol.has("substitutions"), is(false));
+        assertThat(bodies.getFirst().get("template_id").asText(), is("d-0123456789abcdef0123456789abcdef"));
+    }
+
+    @Test
+    void aggregateFailedChunks() throws Exception {
+        SendGridMailSendBatch.Output output = task(null).send(runContextFactory.of(Map.of()), (runContext, request) ->
+            body(request).get("personalizations").size() == 1 ? new Response(400, "{\"errors\":[]}", Map.of()) : new Response(202, "", Map.of())
+        );
+
+        assertThat(output.getSent(), is(2L));
+        assertThat(output.getFailed(), is(1L));
+        assertThat(output.getFailures(), hasSize(1));
+        assertThat(output.getFailures().getFirst().getIndex(), is(1L));
+        assertThat(output.getFailures().getFirst().getStatusCode(), is(400));
+    }
+
+    @Test
+    void failWhenNothingIsSent() {
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, () -> task(null)
+            .send(runContextFactory.of(Map.of()), (runContext, request) -> new Response(401, "unauthorized", Map.of()))
+        );
+
+        assertThat(exception.getMessage(), containsString("Unable to send 3 emails out of 3"));
+    }
+
+    @Test
+    void retryRateLimitedChunks() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        SendGridMailSendBatch task = SendGridMailSendBatch.builder()
+            .sendgridApiKey(Property.ofValue("SG.offline"))
+            .from(Property.ofValue("from@mail.com"))
+            .recipients(Property.ofValue(List.of("alice@mail.com")))
+            .textContent(Property.ofValue("An email for -to-"))
+            .build();
+
+        SendGridMailSendBatch.Output output = task.send(runContextFactory.of(Map.of()), (runContext, request) -> calls.getAndIncrement() == 0 ?
+                new Response(429, "", Map.of("Retry-After", "0")) :
+                new Response(202, "", Map.of())
+            );
+
+        assertThat(calls.get(), is(2));
+        assertThat(output.getSent(), is(1L));
+    }
+
+    @Test
+    void notRetryServerErrors() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        SendGridMailSendBatch.Output output = task(null).send(runContextFactory.of(Map.of()), (runContext, request) -> {
+            if (calls.getAndIncrement() == 0) {
+                return new Response(503, "unavailable", Map.of());
+            }
+            return new Response(202, "", Map.of());
+        });
+
+        // the first chunk may have been accepted before the 503, it must not be sent twice
+        assertThat(calls.get(), is(2));
+        assertThat(output.getSent(), is(1L));
+        assertThat(output.getFailures().getFirst().getStatusCode(), is(503));
+    }
+
+    @Test
+    void retryConnectionFailures() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        SendGridMailSendBatch task = SendGridMailSendBatch.builder()
+            .sendgridApiKey(Property.ofValue("SG.offline"))
+            .from(Property.ofValue("from@mail.com"))
+            .recipients(Property.ofValue(List.of("alice@mail.com")))
+            .textContent(Property.ofValue("An email for -to-"))
+            .build();
+
+        SendGridMailSendBatch.Output output = task.send(runContextFactory.of(Map.of()), (runContext, request) -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new ConnectException("Connection refused");
+            }
+            return new Response(202, "", Map.of());
+        });
+
+        assertThat(calls.get(), is(2));
+        assertThat(output.getSent(), is(1L));
+    }
+
+    @Test
+    void reportRowPositionsOfFailedChunks() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        File rowsFile = runContext.workingDir().createTempFile(".ion").toFile();
+        try (OutputStream outputStream = new FileOutputStream(rowsFile)) {
+            FileSerde.write(outputStream, Map.of("to", "alice@mail.com"));
+            FileSerde.write(outputStream, Map.of("name", "Nobody"));
+            FileSerde.write(outputStream, Map.of("to", "bob@mail.com"));
+            FileSerde.write(outputStream, Map.of("to", "carol@mail.com"));
+        }
+
+        SendGridMailSendBatch task = SendGridMailSendBatch.builder()
+            .sendgridApiKey(Property.ofValue("SG.offline"))
+            .from(Property.ofValue("from@mail.com"))
+            .rows(Property.ofValue(runContext.storage().putFile(rowsFile).toString()))
+            .textContent(Property.ofValue("An email for -to-"))
+            .batchSize(Property.ofValue(2))
+            .concurrency(Property.ofValue(1))
+            .build();
+
+        SendGridMailSendBatch.Output output = task.send(runContext, (rContext, request) ->
+            body(request).get("personalizations").size() == 1 ? new Response(400, "{\"errors\":[]}", Map.of()) : new Response(202, "", Map.of())
+        );
+
+        assertThat(output.getTotal(), is(4L));
+        assertThat(output.getSkipped(), is(1L));
+        assertThat(output.getSent(), is(2L));
+        assertThat(output.getFailed(), is(2L));
+
+        // the skipped row shifts carol to the position 3, not 1 * batchSize
+        SendGridMailSendBatch.ChunkFailure failure = output.getFailures().getFirst();
+        assertThat(failure.getIndex(), is(1L));
+        assertThat(failure.getFirstRow(), is(3L));
+        assertThat(failure.getLastRow(), is(3L));
+    }
+
+    private static SendGridMailSendBatch task(String templateId) {
+        return SendGridMailSendBatch.builder()
+            .sendgridApiKey(Property.ofValue("SG.offline"))
+            .from(Property.ofValue("from@mail.com"))
+            .recipients(Property.ofValue(List.of("alice@mail.com", "bob@mail.com", "carol@mail.com")))
+            .subject(Property.ofValue("Hello -to-"))
+            .textContent(templateId == null ? Property.ofValue("An email for -to-") : null)
+            .templateId(templateId == null ? null : Property.ofValue(templateId))
+            .batchSize(Property.ofValue(2))
+            // keep the chunks in order
+            .concurrency(Property.ofValue(1))
+            .build();
+    }
+
+    private static JsonNode body(Request request) throws IOException {
+        return JacksonMapper.ofJson().readTree(request.getBody());
+    }
+}
@@ -121,4 +121,44 @@ class ExecutionServiceTest {
         assertThat(executionMap).containsKey("link");
         assertThat(executionMap).containsKey("startDate");
     }
+
+    @Test
+    void executionMapShouldShareExecutionVariablesBetweenSiblings() throws IllegalVariableEvaluationException {
+        var flow = Flow.builder()
+            .tenantId(TenantService.MAIN_TENANT)
+            .namespace("namespace")
+            .id("flow")
+            .tasks(List.of(Log.builder().id("log").message("log message").build()))
+            .build();
+        var failedExecution = Execution.newExecution(flow, Collections.emptyList())
+            .withState(State.Type.FAILED);
+        executionRepository.save(failedExecution);
+
+        var notificationExecution = Execution.newExecution(flow, Collections.emptyList());
+
+        ExecutionInterface executionInterface = new ExecutionInterface() {
+            @Override
+            public Property<String> getExecutionId() {
+                return Property.ofValue(failedExecution.getId());
+            }
+
+            @Override
+            public Property<Map<String, Object>> getCustomFields() {
+                return null;
+            }
+
+            @Override
+            public Property<String> getCustomMessage() {
+                return Property.ofValue("custom");
+            }
+        };
+
+        var first = ExecutionService.executionMap(runContextFactory.of(flow, notificationExecution), executionInterface);
+        var second = ExecutionService.executionMap(runContextFactory.of(flow, notificationExecution), executionInterface);
+
+        assertThat(second.get("execution")).isSameAs(first.get("execution"));
+        assertThat(second.get("link")).isEqualTo(first.get("link"));
+        assertThat(second).containsEntry("customMessage", "custom");
+        assertThat(second).isNotSameAs(first);
+    }
 }
@@ -0,0 +1,166 @@
+package io.kestra.plugin.notifications.service;
+
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.State;
+import io.kestra.plugin.notifications.services.ExecutionWaiter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutionWaiterTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionWaiterTest.class);
+
+    @Test
+    void shouldWaitForTheWantedState() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Execution execution = ExecutionWaiter.await(
+            "shouldWaitForTheWantedState",
+            "executionId",
+            () -> Optional.of(Execution.builder()
+                .id("executionId")
+                .state(new State(calls.incrementAndGet() < 3 ? State.Type.RUNNING : State.Type.FAILED))
+                .build()
+            ),
+            e -> e.getState().getCurrent().isTerminated(),
+            LOGGER
+        );
+
+        assertThat(execution.getState().getCurrent()).isEqualTo(State.Type.FAILED);
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldCoalesceConcurrentLookups() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Callable<Execution> lookup = () -> ExecutionWaiter.await(
+            "shouldCoalesceConcurrentLookups",
+            "executionId",
+            () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return Optional.of(Execution.builder().id("executionId").state(new State(State.Type.SUCCESS)).build());
+            },
+            e -> true,
+            LOGGER
+        );
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            Future<Execution> first = executor.submit(lookup);
+            started.await();
+
+            List<Future<Execution>> others = List.of(executor.submit(lookup), executor.submit(lookup));
+            // give the other lookups the time to join the pending one
+            Thread.sleep(200);
+            release.countDown();
+
+            assertThat(first.get().getId()).isEqualTo("executionId");
+            for (Future<Execution> other : others) {
+                assertThat(other.get()).isSameAs(first.get());
+            }
+        }
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTakeOverLookupWhenLeaderIsInterrupted() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<Throwable> leaderFailure = new AtomicReference<>();
+
+        Callable<Execution> lookup = () -> ExecutionWaiter.await(
+            "shouldTakeOverLookupWhenLeaderIsInterrupted",
+            "executionId",
+            () -> {
+                // the first poll doesn't find the execution, so the leader sleeps before polling again
+                boolean first = calls.incrementAndGet() == 1;
+                started.countDown();
+                return Optional.of(Execution.builder().id("executionId").state(new State(first ? State.Type.RUNNING : State.Type.SUCCESS)).build());
+            },
+            e -> e.getState().getCurrent().isTerminated(),
+            LOGGER
+        );
+
+        Thread leader = Thread.ofPlatform().start(() -> {
+            try {
+                lookup.call();
+            } catch (Throwable e) {
+                leaderFailure.set(e);
+            }
+        });
+        started.await();
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<Execution> joiner = executor.submit(lookup);
+            // give the joiner the time to join the pending lookup
+            Thread.sleep(50);
+            leader.interrupt();
+            leader.join();
+
+            assertThat(leaderFailure.get()).isInstanceOf(NoSuchElementException.class);
+            assertThat(joiner.get(10, TimeUnit.SECONDS).getState().getCurrent()).isEqualTo(State.Type.SUCCESS);
+        }
+    }
+
+    @Test
+    void shouldReleaseJoinersWhenLeaderFailsWithError() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Callable<Execution> lookup = () -> ExecutionWaiter.await(
+            "shouldReleaseJoinersWhenLeaderFailsWithError",
+            "executionId",
+            () -> {
+                boolean first = calls.incrementAndGet() == 1;
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                if (first) {
+                    throw new AssertionError("Failure of the leader");
+                }
+                return Optional.of(Execution.builder().id("executionId").state(new State(State.Type.SUCCESS)).build());
+            },
+            e -> true,
+            LOGGER
+        );
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<Execution> leader = executor.submit(lookup);
+            started.await();
+
+            Future<Execution> joiner = executor.submit(lookup);
+            // give the joiner the time to join the pending lookup
+            Thread.sleep(200);
+            release.countDown();
+
+            assertThatThrownBy(leader::get).hasRootCauseInstanceOf(AssertionError.class);
+            assertThatThrownBy(() -> joiner.get(10, TimeUnit.SECONDS)).hasRootCauseInstanceOf(AssertionError.class);
+        }
+
+        // the failed lookup is no longer pending, a new one polls again
+        assertThat(lookup.call().getState().getCurrent()).isEqualTo(State.Type.SUCCESS);
+    }
+}
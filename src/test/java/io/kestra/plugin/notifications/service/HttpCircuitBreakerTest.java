@@ -0,0 +1,73 @@
+package io.kestra.plugin.notifications.service;
+
+import io.kestra.plugin.notifications.services.HttpCircuitBreaker;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpCircuitBreakerTest {
+    @Test
+    void shouldOpenAfterConsecutiveFailures() {
+        HttpCircuitBreaker.Breaker breaker = HttpCircuitBreaker.of(URI.create("https://down.example.com/webhook"), 2, Duration.ofMinutes(1));
+
+        breaker.acquire();
+        assertThat(breaker.onFailure()).isFalse();
+        breaker.acquire();
+        assertThat(breaker.onFailure()).isTrue();
+
+        assertThat(breaker.getState()).isEqualTo(HttpCircuitBreaker.State.OPEN);
+        assertThatThrownBy(breaker::acquire).isInstanceOf(HttpCircuitBreaker.OpenException.class);
+    }
+
+    @Test
+    void shouldNotShareBreakerAcrossWebhooksOfTheSameHost() {
+        HttpCircuitBreaker.Breaker breaker = HttpCircuitBreaker.of(URI.create("https://shared.example.com/webhook/a"), 1, Duration.ofMinutes(1));
+
+        breaker.acquire();
+        breaker.onFailure();
+
+        HttpCircuitBreaker.Breaker other = HttpCircuitBreaker.of(URI.create("https://shared.example.com/webhook/b"), 1, Duration.ofMinutes(1));
+        assertThat(other).isNotSameAs(breaker);
+        assertThat(other.getState()).isEqualTo(HttpCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulProbe() throws InterruptedException {
+        HttpCircuitBreaker.Breaker breaker = HttpCircuitBreaker.of(URI.create("https://flaky.example.com/webhook"), 1, Duration.ofMillis(50));
+
+        breaker.acquire();
+        breaker.onFailure();
+        Thread.sleep(100);
+
+        breaker.acquire();
+        assertThat(breaker.getState()).isEqualTo(HttpCircuitBreaker.State.HALF_OPEN);
+        // only one probe at a time
+        assertThatThrownBy(breaker::acquire).isInstanceOf(HttpCircuitBreaker.OpenException.class);
+
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(HttpCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldGiveBackProbeWithoutOutcome() throws InterruptedException {
+        HttpCircuitBreaker.Breaker breaker = HttpCircuitBreaker.of(URI.create("https://interrupted.example.com/webhook"), 1, Duration.ofMillis(50));
+
+        breaker.acquire();
+        breaker.onFailure();
+        Thread.sleep(100);
+
+        try (HttpCircuitBreaker.Permit ignored = breaker.acquire()) {
+            assertThat(breaker.getState()).isEqualTo(HttpCircuitBreaker.State.HALF_OPEN);
+            // the probe ends without success nor failure, like on an interruption
+        }
+
+        try (HttpCircuitBreaker.Permit ignored = breaker.acquire()) {
+            breaker.onSuccess();
+        }
+        assertThat(breaker.getState()).isEqualTo(HttpCircuitBreaker.State.CLOSED);
+    }
+}
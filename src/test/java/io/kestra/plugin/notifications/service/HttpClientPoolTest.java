@@ -0,0 +1,66 @@
+package io.kestra.plugin.notifications.service;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.plugin.notifications.AbstractHttpOptionsTask;
+import io.kestra.plugin.notifications.services.HttpClientPool;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@KestraTest
+class HttpClientPoolTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void shouldReuseConnectionsForSameOptions() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        AbstractHttpOptionsTask.RequestOptions options = AbstractHttpOptionsTask.RequestOptions.builder()
+            .connectTimeout(Property.ofValue(Duration.ofSeconds(3)))
+            .build();
+
+        try (
+            HttpClientPool.Lease first = HttpClientPool.acquire(runContext, options);
+            HttpClientPool.Lease second = HttpClientPool.acquire(runContextFactory.of(Map.of()), options)
+        ) {
+            assertThat(first.getConnectionManager()).isSameAs(second.getConnectionManager());
+            // the client is bound to the run context of its lease, only the connections are shared
+            assertThat(first.getClient()).isNotSameAs(second.getClient());
+        }
+    }
+
+    @Test
+    void shouldNotShareConnectionsAcrossDifferentOptions() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        AbstractHttpOptionsTask.RequestOptions fast = AbstractHttpOptionsTask.RequestOptions.builder()
+            .connectTimeout(Property.ofValue(Duration.ofSeconds(1)))
+            .build();
+        AbstractHttpOptionsTask.RequestOptions slow = AbstractHttpOptionsTask.RequestOptions.builder()
+            .connectTimeout(Property.ofValue(Duration.ofSeconds(30)))
+            .build();
+
+        try (
+            HttpClientPool.Lease first = HttpClientPool.acquire(runContext, fast);
+            HttpClientPool.Lease second = HttpClientPool.acquire(runContext, slow)
+        ) {
+            assertThat(first.getConnectionManager()).isNotSameAs(second.getConnectionManager());
+        }
+    }
+
+    @Test
+    void shouldAllowConcurrentConnectionsToOneEndpoint() throws Exception {
+        try (HttpClientPool.Lease lease = HttpClientPool.acquire(runContextFactory.of(Map.of()), null)) {
+            assertThat(lease.getConnectionManager().getDefaultMaxPerRoute()).isEqualTo(20);
+            assertThat(lease.getConnectionManager().getMaxTotal()).isEqualTo(100);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.kestra.plugin.notifications.service;
+
+import io.kestra.plugin.notifications.services.HttpRateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpRateLimiterTest {
+    @Test
+    void shouldWaitAboveTheRate() throws InterruptedException {
+        HttpRateLimiter.Rate rate = new HttpRateLimiter.Rate(2, Duration.ofSeconds(1));
+
+        assertThat(HttpRateLimiter.acquire("https://hooks.example.com/burst", rate, Duration.ofSeconds(10))).isZero();
+        assertThat(HttpRateLimiter.acquire("https://hooks.example.com/burst", rate, Duration.ofSeconds(10))).isZero();
+        assertThat(HttpRateLimiter.acquire("https://hooks.example.com/burst", rate, Duration.ofSeconds(10))).isGreaterThan(Duration.ofMillis(300));
+    }
+
+    @Test
+    void shouldNotShareBucketsAcrossDestinations() throws InterruptedException {
+        HttpRateLimiter.Rate rate = new HttpRateLimiter.Rate(1, Duration.ofSeconds(10));
+
+        assertThat(HttpRateLimiter.acquire("https://hooks.example.com/first", rate, Duration.ofSeconds(10))).isZero();
+        assertThat(HttpRateLimiter.acquire("https://hooks.example.com/second", rate, Duration.ofSeconds(10))).isZero();
+    }
+
+    @Test
+    void shouldFailFastAboveTheMaxWait() throws InterruptedException {
+        HttpRateLimiter.Rate rate = new HttpRateLimiter.Rate(1, Duration.ofSeconds(2));
+
+        assertThat(HttpRateLimiter.acquire("https://hooks.example.com/storm", rate, Duration.ofMillis(500))).isZero();
+        assertThatThrownBy(() -> HttpRateLimiter.acquire("https://hooks.example.com/storm", rate, Duration.ofMillis(500)))
+            .isInstanceOf(HttpRateLimiter.WaitTooLongException.class);
+        // the rejected request reserved no token, so the next one only waits for the first refill
+        assertThat(HttpRateLimiter.acquire("https://hooks.example.com/storm", rate, Duration.ofSeconds(3))).isLessThan(Duration.ofMillis(2500));
+    }
+
+    @Test
+    void shouldRejectInvalidRate() {
+        assertThatThrownBy(() -> new HttpRateLimiter.Rate(0, Duration.ofSeconds(1)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,118 @@
+package io.kestra.plugin.notifications.service;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.executions.TaskRun;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.notifications.services.LazyExecutionMap;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@KestraTest
+class LazyExecutionMapTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private static Execution execution(int taskRuns) {
+        return Execution.builder()
+            .id("executionId")
+            .namespace("company.team")
+            .flowId("flow")
+            .state(new State(State.Type.FAILED))
+            .taskRunList(IntStream.range(0, taskRuns)
+                .mapToObj(i -> TaskRun.builder()
+                    .id("taskRun" + i)
+                    .executionId("executionId")
+                    .namespace("company.team")
+                    .flowId("flow")
+                    .taskId("task" + i)
+                    .state(new State(State.Type.SUCCESS))
+                    .build()
+                )
+                .toList()
+            )
+            .build();
+    }
+
+    @Test
+    void shouldOnlyMaterializeDereferencedProperties() {
+        Execution execution = execution(100);
+        Map<String, Object> eager = JacksonMapper.toMap(execution);
+        LazyExecutionMap lazy = new LazyExecutionMap(execution);
+
+        assertThat(lazy.get("id")).isEqualTo(eager.get("id"));
+        assertThat(lazy.get("namespace")).isEqualTo(eager.get("namespace"));
+        assertThat(lazy.get("flowId")).isEqualTo(eager.get("flowId"));
+        assertThat(lazy.get("state")).isEqualTo(eager.get("state"));
+        assertThat(lazy.containsKey("taskRunList")).isTrue();
+        assertThat(lazy.containsKey("unknown")).isFalse();
+
+        assertThat(lazy.isMaterialized("state")).isTrue();
+        assertThat(lazy.isMaterialized("taskRunList")).isFalse();
+    }
+
+    @Test
+    void shouldBeEquivalentToEagerMapWhenIterated() {
+        Execution execution = execution(10);
+
+        assertThat(new LazyExecutionMap(execution)).containsAllEntriesOf(JacksonMapper.toMap(execution));
+    }
+
+    @Test
+    void shouldNotMaterializeTaskRunsForTemplateFields() {
+        LazyExecutionMap lazy = new LazyExecutionMap(execution(2_000));
+
+        templateFields(lazy);
+
+        assertThat(lazy.isMaterialized("state")).isTrue();
+        assertThat(lazy.isMaterialized("taskRunList")).isFalse();
+    }
+
+    @Test
+    void shouldStayLazyWhenRenderingTemplate() throws Exception {
+        Execution execution = execution(2_000);
+        LazyExecutionMap lazy = new LazyExecutionMap(execution);
+        RunContext runContext = runContextFactory.of(Map.of("execution", lazy));
+
+        String rendered = runContext.render(
+            "{{ execution.namespace }}/{{ execution.flowId }} {{ execution.state.current }}" +
+                "{% if execution is not empty %} {{ execution | length }}{% endif %}"
+        );
+
+        assertThat(rendered).isEqualTo("company.team/flow FAILED " + new LazyExecutionMap(execution).size());
+        assertThat(lazy.isMaterialized("state")).isTrue();
+        assertThat(lazy.isMaterialized("taskRunList")).isFalse();
+        assertThat(lazy.isMaterialized("id")).isFalse();
+    }
+
+    @Test
+    void shouldComputeSizeWithoutMaterializing() {
+        Execution execution = execution(100);
+        LazyExecutionMap lazy = new LazyExecutionMap(execution);
+
+        assertThat(lazy.isEmpty()).isFalse();
+        // same as the materialized entries, without converting any of them
+        Map<String, Object> materialized = new HashMap<>(new LazyExecutionMap(execution));
+        assertThat(lazy.size()).isEqualTo(materialized.size());
+        assertThat(lazy.keySet()).isEqualTo(materialized.keySet());
+        assertThat(lazy.isMaterialized("taskRunList")).isFalse();
+    }
+
+    // the fields dereferenced by the bundled templates
+    @SuppressWarnings("unchecked")
+    private static void templateFields(Map<String, Object> map) {
+        map.get("id");
+        map.get("namespace");
+        map.get("flowId");
+        ((Map<String, Object>) map.get("state")).get("current");
+    }
+}
@@ -0,0 +1,27 @@
+package io.kestra.plugin.notifications.service;
+
+import io.kestra.plugin.notifications.services.TemplateRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TemplateRegistryTest {
+    @Test
+    void shouldLoadTemplateOnce() {
+        ClassLoader classLoader = TemplateRegistryTest.class.getClassLoader();
+
+        String first = TemplateRegistry.get(classLoader, "slack-template.peb");
+        String second = TemplateRegistry.get(classLoader, "slack-template.peb");
+
+        assertThat(first).isNotBlank();
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void shouldFailOnMissingTemplate() {
+        assertThatThrownBy(() -> TemplateRegistry.get(TemplateRegistryTest.class.getClassLoader(), "missing-template.peb"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("missing-template.peb");
+    }
+}
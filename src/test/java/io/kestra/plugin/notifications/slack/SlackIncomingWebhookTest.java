@@ -3,6 +3,7 @@ package io.kestra.plugin.notifications.slack;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Files;
+import io.kestra.core.http.client.HttpClientResponseException;
 import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.runners.RunContext;
@@ -10,6 +11,7 @@ import io.kestra.core.runners.RunContextFactory;
 import io.kestra.core.serializers.JacksonMapper;
 import io.kestra.plugin.notifications.AbstractHttpOptionsTask;
 import io.kestra.plugin.notifications.FakeWebhookController;
+import io.kestra.plugin.notifications.services.HttpCircuitBreaker;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.runtime.server.EmbeddedServer;
 import jakarta.inject.Inject;
@@ -17,6 +19,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -113,6 +116,89 @@ class SlackIncomingWebhookTest {
         assertThat(FakeWebhookController.headers).containsEntry("demo-api-key", "demo");
     }
 
+    @Test
+    void shouldRetryWhenRateLimited() throws Exception {
+        RunContext runContext = runContextFactory.of(ImmutableMap.of());
+
+        EmbeddedServer embeddedServer = applicationContext.getBean(EmbeddedServer.class);
+        embeddedServer.start();
+
+        FakeWebhookController.rateLimitedCalls.set(0);
+
+        SlackIncomingWebhook task = SlackIncomingWebhook.builder()
+            .url(embeddedServer.getURI() + "/webhook-unit-test/rate-limited")
+            .messageText(Property.ofValue("Rate limited message"))
+            .build();
+
+        task.run(runContext);
+
+        assertThat(FakeWebhookController.rateLimitedCalls.get()).isEqualTo(2);
+        assertThat(FakeWebhookController.data).contains("Rate limited message");
+    }
+
+    @Test
+    void shouldFailFastWhenRateLimitWaitIsTooLong() throws Exception {
+        RunContext runContext = runContextFactory.of(ImmutableMap.of());
+
+        EmbeddedServer embeddedServer = applicationContext.getBean(EmbeddedServer.class);
+        embeddedServer.start();
+
+        SlackIncomingWebhook task = SlackIncomingWebhook.builder()
+            // the query makes the destination, and so its rate limit bucket, unique to this test
+            .url(embeddedServer.getURI() + "/webhook-unit-test?test=rate-limit-max-wait")
+            .messageText(Property.ofValue("Alert storm"))
+            .options(AbstractHttpOptionsTask.RequestOptions.builder()
+                .rateLimit(Property.ofValue(1))
+                .rateLimitPeriod(Property.ofValue(Duration.ofMinutes(1)))
+                .rateLimitMaxWait(Property.ofValue(Duration.ofMillis(100)))
+                .build()
+            )
+            .build();
+
+        task.run(runContext);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> task.run(runContext))
+            .hasMessageContaining("Rate limit of the destination reached");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldOnlyOpenCircuitBreakerOnEndpointFailures() throws Exception {
+        RunContext runContext = runContextFactory.of(ImmutableMap.of());
+
+        EmbeddedServer embeddedServer = applicationContext.getBean(EmbeddedServer.class);
+        embeddedServer.start();
+
+        AbstractHttpOptionsTask.RequestOptions options = AbstractHttpOptionsTask.RequestOptions.builder()
+            .maxAttempts(Property.ofValue(1))
+            .circuitBreakerThreshold(Property.ofValue(1))
+            .circuitBreakerOpenDuration(Property.ofValue(Duration.ofMinutes(1)))
+            .build();
+
+        // a 404 means the endpoint is up, it never opens the breaker
+        SlackIncomingWebhook notFound = SlackIncomingWebhook.builder()
+            .url(embeddedServer.getURI() + "/webhook-unit-test/unknown?test=circuit-breaker")
+            .messageText(Property.ofValue("Not found"))
+            .options(options)
+            .build();
+
+        assertThatThrownBy(() -> notFound.run(runContext)).isInstanceOf(HttpClientResponseException.class);
+        assertThatThrownBy(() -> notFound.run(runContext)).isInstanceOf(HttpClientResponseException.class);
+
+        // a 429 is a failure of the endpoint
+        FakeWebhookController.rateLimitedCalls.set(0);
+        SlackIncomingWebhook rateLimited = SlackIncomingWebhook.builder()
+            .url(embeddedServer.getURI() + "/webhook-unit-test/rate-limited?test=circuit-breaker")
+            .messageText(Property.ofValue("Rate limited"))
+            .options(options)
+            .build();
+
+        assertThatThrownBy(() -> rateLimited.run(runContext)).isInstanceOf(HttpClientResponseException.class);
+        assertThatThrownBy(() -> rateLimited.run(runContext)).isInstanceOf(HttpCircuitBreaker.OpenException.class);
+        assertThat(FakeWebhookController.rateLimitedCalls.get()).isEqualTo(1);
+    }
+
     @Test
     void shouldSendMessageTextWithMarkdown() throws Exception {
         RunContext runContext = runContextFactory.of(ImmutableMap.of());